@@ -0,0 +1,20 @@
+package ru.practicum.cache;
+
+import lombok.Value;
+
+@Value
+public class CacheEvictEvent {
+
+    String cacheName;
+
+    Long key;
+
+    public static CacheEvictEvent of(String cacheName, Long key) {
+        return new CacheEvictEvent(cacheName, key);
+    }
+
+    public static CacheEvictEvent all(String cacheName) {
+        return new CacheEvictEvent(cacheName, null);
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.practicum.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheEvictListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEvictBeforeCommit(CacheEvictEvent event) {
+        onEvict(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvict(CacheEvictEvent event) {
+        Optional<Cache> cache = Optional.ofNullable(cacheManager.getCache(event.getCacheName()));
+        if (event.getKey() == null) {
+            cache.ifPresent(Cache::clear);
+            log.debug("Кэш {} очищен", event.getCacheName());
+        } else {
+            cache.ifPresent(value -> value.evict(event.getKey()));
+            log.debug("Из кэша {} удалена запись {}", event.getCacheName(), event.getKey());
+        }
+    }
+
+}
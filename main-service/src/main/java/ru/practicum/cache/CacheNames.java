@@ -0,0 +1,13 @@
+package ru.practicum.cache;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class CacheNames {
+
+    public static final String CATEGORIES = "categories";
+    public static final String USERS = "users";
+    public static final String COMPILATIONS = "compilations";
+    public static final String COMPILATION_RESPONSES = "compilationResponses";
+
+}
@@ -0,0 +1,12 @@
+package ru.practicum.cache;
+
+import lombok.Value;
+
+@Value
+public class CachedResponse {
+
+    byte[] body;
+
+    String etag;
+
+}
@@ -1,7 +1,16 @@
 package ru.practicum.category.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.category.model.Category;
 
+import java.util.Optional;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.CATEGORIES, unless = "#result == null")
+    Optional<Category> findById(Long id);
+
 }
@@ -2,10 +2,13 @@ package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.category.dto.CategoryDto;
 import ru.practicum.category.dto.NewCategoryDto;
 import ru.practicum.category.mapper.CategoryMapper;
@@ -26,6 +29,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -46,6 +50,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConflictException("Невозможно удалить категорию. Существуют события, связанные с категорией.");
         }
         categoryRepository.deleteById(catId);
+        eventPublisher.publishEvent(CacheEvictEvent.of(CacheNames.CATEGORIES, catId));
         log.info("Категория с id = {} удалена.", catId);
     }
 
@@ -53,8 +58,10 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public CategoryDto updateCategory(Long catId, NewCategoryDto newCategoryDto) {
         log.info("Изменение категории {} с id = {}", newCategoryDto, catId);
-        Category category = checkCategory(catId);
-        category.setName(newCategoryDto.getName());
+        checkCategory(catId);
+        Category category = Category.builder().id(catId).name(newCategoryDto.getName()).build();
+        eventPublisher.publishEvent(CacheEvictEvent.of(CacheNames.CATEGORIES, catId));
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
         log.info("Категория с id = {} обновлена", catId);
         return CategoryMapper.INSTANCE.toCategoryDto(categoryRepository.save(category));
     }
@@ -2,14 +2,17 @@ package ru.practicum.compilation.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.compilation.dto.CompilationDto;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.cache.CachedResponse;
+import ru.practicum.compilation.service.CompilationResponseCache;
 import ru.practicum.compilation.service.CompilationService;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.List;
 
 @RestController
 @Slf4j
@@ -19,20 +22,34 @@ import java.util.List;
 public class PublicCompilationController {
 
     private final CompilationService compilationService;
+    private final CompilationResponseCache compilationResponseCache;
 
     @GetMapping
-    public List<CompilationDto> getCompilations(@RequestParam(defaultValue = "false") Boolean pinned,
-                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<byte[]> getCompilations(@RequestParam(defaultValue = "false") Boolean pinned,
+                                                  @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                  @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                  WebRequest request) {
         log.info("Запрос на получение подборки событий по параметрам: " +
                 "pinned {}, from {}, size {}", pinned, from, size);
-        return compilationService.getCompilations(pinned, from, size);
+        return toResponse(compilationResponseCache.getList(pinned, from, size,
+                () -> compilationService.getCompilations(pinned, from, size)), request);
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilationById(@PathVariable Long compId) {
+    public ResponseEntity<byte[]> getCompilationById(@PathVariable Long compId, WebRequest request) {
         log.info("Запрос на получение подборки событий с id = {}", compId);
-        return compilationService.getCompilationById(compId);
+        return toResponse(compilationResponseCache.getById(compId,
+                () -> compilationService.getCompilationById(compId)), request);
+    }
+
+    private ResponseEntity<byte[]> toResponse(CachedResponse response, WebRequest request) {
+        if (request.checkNotModified(response.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(response.getEtag())
+                .body(response.getBody());
     }
 
 }
@@ -6,6 +6,7 @@ import org.mapstruct.factory.Mappers;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.dto.NewCompilationDto;
 import ru.practicum.compilation.model.Compilation;
+import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
 
@@ -21,4 +22,7 @@ public interface CompilationMapper {
 
     CompilationDto toCompilationDto(Compilation compilation);
 
+    @Mapping(target = "events", source = "eventList")
+    CompilationDto toCompilationDto(Compilation compilation, List<EventShortDto> eventList);
+
 }
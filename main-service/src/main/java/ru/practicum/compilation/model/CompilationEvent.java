@@ -0,0 +1,12 @@
+package ru.practicum.compilation.model;
+
+import lombok.Value;
+
+@Value
+public class CompilationEvent {
+
+    Long compilationId;
+
+    Long eventId;
+
+}
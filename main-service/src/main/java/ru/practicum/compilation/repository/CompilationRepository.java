@@ -1,11 +1,32 @@
 package ru.practicum.compilation.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.compilation.model.Compilation;
+import ru.practicum.compilation.model.CompilationEvent;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     List<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+
+    List<Compilation> findAllBy(Pageable pageable);
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.COMPILATIONS, unless = "#result == null")
+    @EntityGraph(attributePaths = {"events", "events.category", "events.initiator"})
+    Optional<Compilation> findById(Long id);
+
+    @Query("select new ru.practicum.compilation.model.CompilationEvent(c.id, e.id) " +
+            "from Compilation as c " +
+            "join c.events as e " +
+            "where c.id in :ids")
+    List<CompilationEvent> findCompilationEvents(@Param("ids") Collection<Long> compilationIds);
 }
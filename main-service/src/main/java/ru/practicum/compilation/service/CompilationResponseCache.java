@@ -0,0 +1,75 @@
+package ru.practicum.compilation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
+import ru.practicum.cache.CachedResponse;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class CompilationResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+    private final ObjectMapper objectMapper;
+
+    public CompilationResponseCache(ObjectMapper objectMapper,
+                                    @Value("${compilations.response-cache.ttl:30s}") Duration ttl,
+                                    @Value("${compilations.response-cache.maximum-size:1000}") long maximumSize,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, cache, CacheNames.COMPILATION_RESPONSES));
+    }
+
+    public CachedResponse getList(Boolean pinned, Integer from, Integer size, Supplier<Object> loader) {
+        return cache.get(String.format("list:%s:%d:%d", pinned, from, size), key -> serialize(loader.get()));
+    }
+
+    public CachedResponse getById(Long compId, Supplier<Object> loader) {
+        return cache.get("id:" + compId, key -> serialize(loader.get()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEvictBeforeCommit(CacheEvictEvent event) {
+        onEvict(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvict(CacheEvictEvent event) {
+        if (CacheNames.COMPILATIONS.equals(event.getCacheName())
+                || CacheNames.COMPILATION_RESPONSES.equals(event.getCacheName())) {
+            cache.invalidateAll();
+            log.debug("Кэш ответов подборок очищен");
+        }
+    }
+
+    private CachedResponse serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать подборку событий", e);
+        }
+    }
+
+}
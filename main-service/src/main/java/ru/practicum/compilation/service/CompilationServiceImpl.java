@@ -2,23 +2,32 @@ package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.dto.NewCompilationDto;
 import ru.practicum.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
+import ru.practicum.compilation.model.CompilationEvent;
 import ru.practicum.compilation.repository.CompilationRepository;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.service.ViewService;
 import ru.practicum.exception.NotFoundException;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -28,6 +37,8 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final ViewService viewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -36,6 +47,7 @@ public class CompilationServiceImpl implements CompilationService {
         List<Event> eventList = newCompilationDto.getEvents() != null ? eventRepository.findAllById(
                 newCompilationDto.getEvents()) : Collections.emptyList();
         Compilation compilation = CompilationMapper.INSTANCE.toCompilation(newCompilationDto, eventList);
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATION_RESPONSES));
         log.info("Подборка добавлена.");
         return CompilationMapper.INSTANCE.toCompilationDto(compilationRepository.save(compilation));
     }
@@ -46,6 +58,7 @@ public class CompilationServiceImpl implements CompilationService {
         log.info("Удаление подборки с id = {}.", compId);
         checkCompilation(compId);
         compilationRepository.deleteById(compId);
+        eventPublisher.publishEvent(CacheEvictEvent.of(CacheNames.COMPILATIONS, compId));
         log.info("Подборка с id = {} удалена.", compId);
     }
 
@@ -53,11 +66,14 @@ public class CompilationServiceImpl implements CompilationService {
     @Transactional
     public CompilationDto updateCompilation(Long compId, UpdateCompilationRequest updateCompilationRequest) {
         log.info("Изменение данных подборки с id = {}", compId);
-        Compilation compilation = checkCompilation(compId);
+        Compilation cached = checkCompilation(compId);
+        Compilation compilation = new Compilation(cached.getId(), cached.getPinned(), cached.getTitle(),
+                new ArrayList<>(cached.getEvents()));
         Optional.ofNullable(updateCompilationRequest.getEvents()).ifPresent(longs ->
                 compilation.setEvents(eventRepository.findAllById(longs)));
         Optional.ofNullable(updateCompilationRequest.getPinned()).ifPresent(compilation::setPinned);
         Optional.ofNullable(updateCompilationRequest.getTitle()).ifPresent(compilation::setTitle);
+        eventPublisher.publishEvent(CacheEvictEvent.of(CacheNames.COMPILATIONS, compId));
         log.info("Данные подборки с id = {} изменены.", compId);
         return CompilationMapper.INSTANCE.toCompilationDto(compilationRepository.save(compilation));
     }
@@ -68,14 +84,36 @@ public class CompilationServiceImpl implements CompilationService {
         PageRequest pageRequest = PageRequest.of(from, size);
         List<Compilation> compilations;
         if (pinned == null) {
-            compilations = compilationRepository.findAll(pageRequest).getContent();
+            compilations = compilationRepository.findAllBy(pageRequest);
         } else {
             compilations = compilationRepository.findAllByPinned(pinned, pageRequest);
         }
         log.info("Получена подборка событий по параметрам: pinned {}, from {}, size {}", pinned, from, size);
 
+        if (compilations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<Long>> eventIdsByCompilation = compilationRepository.findCompilationEvents(
+                        compilations.stream().map(Compilation::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(CompilationEvent::getCompilationId,
+                        Collectors.mapping(CompilationEvent::getEventId, Collectors.toList())));
+        Set<Long> eventIds = eventIdsByCompilation.values().stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+        List<EventShort> events = eventIds.isEmpty() ? Collections.emptyList()
+                : eventRepository.findEventShortsByIdIn(eventIds);
+        Map<Long, EventShortDto> eventDtos = events.stream()
+                .map(EventMapper.INSTANCE::toEventShortDto)
+                .collect(Collectors.toMap(EventShortDto::getId, Function.identity()));
+        setViews(eventDtos.values(), events.stream().map(EventShort::getCreatedOn));
+
         return compilations.stream()
-                .map(CompilationMapper.INSTANCE::toCompilationDto)
+                .map(compilation -> CompilationMapper.INSTANCE.toCompilationDto(compilation,
+                        eventIdsByCompilation.getOrDefault(compilation.getId(), Collections.emptyList()).stream()
+                                .map(eventDtos::get)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toList())))
                 .collect(Collectors.toList());
     }
 
@@ -84,7 +122,19 @@ public class CompilationServiceImpl implements CompilationService {
         log.info("Получение подборки событий с id = {}", compId);
         Compilation compilation = checkCompilation(compId);
         log.info("Получена подборка событий с id = {}", compId);
-        return CompilationMapper.INSTANCE.toCompilationDto(compilation);
+        CompilationDto compilationDto = CompilationMapper.INSTANCE.toCompilationDto(compilation);
+        setViews(compilationDto.getEvents(), compilation.getEvents().stream().map(Event::getCreatedOn));
+        return compilationDto;
+    }
+
+    private void setViews(Collection<EventShortDto> events, Stream<LocalDateTime> createdOn) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        LocalDateTime start = createdOn.filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+        Map<Long, Long> views = viewService.getViews(
+                events.stream().map(EventShortDto::getId).collect(Collectors.toList()), start);
+        events.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
     }
 
     private Compilation checkCompilation(Long compId) {
@@ -9,7 +9,9 @@ import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.UpdateEventAdminRequest;
 import ru.practicum.event.service.EventService;
 import ru.practicum.event.utils.EventState;
+import ru.practicum.pagination.Cursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -35,10 +37,15 @@ public class EventAdminController {
                                                    @RequestParam(required = false) @DateTimeFormat(
                                                            pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                   @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                   @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                   @RequestParam(required = false) String cursor,
+                                                   HttpServletResponse response) {
         log.info("Запрос на получение информации о событиях с параметрами: users {}, states {}, categories {}, " +
                 "rangeStart {}, rangeEnd {}, from {}, size {}", users, states, categories, rangeStart, rangeEnd, from, size);
-        return eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+        List<EventFullDto> events = eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd,
+                from, size, Cursor.decode(cursor));
+        Cursor.addNextCursorHeader(response, events, size, event -> Cursor.of(event.getId()));
+        return events;
     }
 
     @PatchMapping("/{eventId}")
@@ -8,7 +8,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.event.dto.*;
 import ru.practicum.event.service.EventService;
 import ru.practicum.event.service.RequestService;
+import ru.practicum.pagination.Cursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -27,9 +29,13 @@ public class EventPrivateController {
     @GetMapping
     public List<EventShortDto> getPrivateEvents(@PathVariable Long userId,
                                                 @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                @RequestParam(required = false) String cursor,
+                                                HttpServletResponse response) {
         log.info("Запрос на получение событий, добавленных пользователем с id = {}, from {}, size {}", userId, from, size);
-        return eventService.getPrivateEvents(userId, from, size);
+        List<EventShortDto> events = eventService.getPrivateEvents(userId, from, size, Cursor.decode(cursor));
+        Cursor.addNextCursorHeader(response, events, size, event -> Cursor.of(event.getId()));
+        return events;
     }
 
     @PostMapping
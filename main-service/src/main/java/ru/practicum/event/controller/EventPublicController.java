@@ -9,8 +9,10 @@ import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.service.EventService;
 import ru.practicum.event.utils.EventSort;
+import ru.practicum.pagination.Cursor;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
@@ -37,10 +39,19 @@ public class EventPublicController {
                                                @RequestParam(required = false) EventSort sort,
                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
                                                @RequestParam(defaultValue = "10") @Positive Integer size,
-                                               HttpServletRequest request) {
+                                               @RequestParam(required = false) String cursor,
+                                               HttpServletRequest request,
+                                               HttpServletResponse response) {
         log.info("Запрос на получение событий с возможностью фильтрации.");
-        return eventService.getPublicEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
-                String.valueOf(sort), from, size, request);
+        List<EventShortDto> events = eventService.getPublicEvents(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, String.valueOf(sort), from, size, Cursor.decode(cursor), request);
+        if (sort == null) {
+            Cursor.addNextCursorHeader(response, events, size, event -> Cursor.of(event.getId()));
+        } else if (sort == EventSort.EVENT_DATE) {
+            Cursor.addNextCursorHeader(response, events, size,
+                    event -> Cursor.of(event.getEventDate(), event.getId()));
+        }
+        return events;
     }
 
     @GetMapping("/{id}")
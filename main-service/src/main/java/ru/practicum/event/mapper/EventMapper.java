@@ -9,6 +9,7 @@ import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.dto.NewEventDto;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
 import ru.practicum.event.model.Location;
 import ru.practicum.event.utils.EventState;
 import ru.practicum.user.mapper.UserMapper;
@@ -38,4 +39,10 @@ public interface EventMapper {
 
     EventShortDto toEventShortDto(Event event);
 
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "initiator.id", source = "initiatorId")
+    @Mapping(target = "initiator.name", source = "initiatorName")
+    EventShortDto toEventShortDto(EventShort eventShort);
+
 }
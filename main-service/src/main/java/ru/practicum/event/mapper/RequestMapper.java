@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.event.dto.ParticipationRequestDto;
 import ru.practicum.event.model.Request;
+import ru.practicum.event.model.RequestView;
 
 @Mapper
 public interface RequestMapper {
@@ -15,4 +16,6 @@ public interface RequestMapper {
     @Mapping(target = "requester", source = "request.requester.id")
     ParticipationRequestDto toParticipationRequestDto(Request request);
 
+    ParticipationRequestDto toParticipationRequestDto(RequestView request);
+
 }
@@ -62,7 +62,7 @@ public class Event {
 
     private String title;
 
-    @Transient
+    @Column(insertable = false, updatable = false)
     private Long views;
 
 }
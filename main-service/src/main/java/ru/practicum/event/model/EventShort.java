@@ -0,0 +1,34 @@
+package ru.practicum.event.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class EventShort {
+
+    Long id;
+
+    String annotation;
+
+    Long categoryId;
+
+    String categoryName;
+
+    Long confirmedRequests;
+
+    LocalDateTime eventDate;
+
+    Long initiatorId;
+
+    String initiatorName;
+
+    Boolean paid;
+
+    String title;
+
+    Long views;
+
+    LocalDateTime createdOn;
+
+}
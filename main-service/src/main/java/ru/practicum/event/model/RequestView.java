@@ -0,0 +1,19 @@
+package ru.practicum.event.model;
+
+import ru.practicum.event.utils.RequestStatus;
+
+import java.time.LocalDateTime;
+
+public interface RequestView {
+
+    Long getId();
+
+    LocalDateTime getCreated();
+
+    Long getEvent();
+
+    Long getRequester();
+
+    RequestStatus getStatus();
+
+}
@@ -2,53 +2,67 @@ package ru.practicum.event.repository;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
 import ru.practicum.event.utils.EventState;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
     List<Event> findByCategoryId(Long catId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event as e where e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"category", "initiator"})
     List<Event> findAllByInitiatorId(Long userId, Pageable pageable);
 
-    @Query("select e from Event as e " +
-            "where (:users is null or e.initiator.id in :users) " +
-            "and (:states is null or e.state in :states) " +
-            "and (:categories is null or e.category.id in :categories) " +
-            "and e.eventDate > :rangeStart")
-    List<Event> findAdminEvents(@Param("users") List<Long> users,
-                                @Param("states") List<EventState> states,
-                                @Param("categories") List<Long> categories,
-                                @Param("rangeStart") LocalDateTime rangeStart,
-                                PageRequest pageable);
-
-    @Query("select e from Event as e " +
-            "where (upper(e.annotation) like upper(concat('%', :text, '%')) " +
-            "or upper(e.description) like upper(concat('%', :text, '%')) or :text is null) " +
-            "and e.state = :state " +
-            "and (:categories is null or e.category.id in :categories) " +
-            "and (:paid is null or e.paid = :paid) " +
-            "and e.eventDate >= :rangeStart")
-    List<Event> getEventsSort(@Param("text") String text,
-                              @Param("state") EventState state,
-                              @Param("categories") List<Long> categories,
-                              @Param("paid") Boolean paid,
-                              @Param("rangeStart") LocalDateTime rangeStart,
-                              Pageable pageable);
-
-    @Query("select e from Event as e " +
-            "where e.initiator.id = :userId " +
+    @EntityGraph(attributePaths = {"category", "initiator"})
+    List<Event> findAllByInitiatorIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.event.model.EventShort(e.id, e.annotation, c.id, c.name, e.confirmedRequests, " +
+            "e.eventDate, i.id, i.name, e.paid, e.title, e.views, e.createdOn) " +
+            "from Event as e " +
+            "join e.category as c " +
+            "join e.initiator as i " +
+            "where i.id = :userId " +
             "and e.state = :state " +
             "and e.eventDate > :rangeStart " +
+            "and (:rangeEnd is null or e.eventDate < :rangeEnd) " +
             "order by e.eventDate asc")
-    List<Event> findSubscriptionEvents(@Param("userId") Long userId,
+    List<EventShort> findSubscriptionEvents(@Param("userId") Long userId,
                                        @Param("state") EventState state,
                                        @Param("rangeStart") LocalDateTime rangeStart,
+                                       @Param("rangeEnd") LocalDateTime rangeEnd,
                                        PageRequest pageable);
 
+    @Query("select new ru.practicum.event.model.EventShort(e.id, e.annotation, c.id, c.name, e.confirmedRequests, " +
+            "e.eventDate, i.id, i.name, e.paid, e.title, e.views, e.createdOn) " +
+            "from Event as e " +
+            "join e.category as c " +
+            "join e.initiator as i " +
+            "where e.id in :ids")
+    List<EventShort> findEventShortsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Event as e set e.confirmedRequests = e.confirmedRequests + :count " +
+            "where e.id = :id " +
+            "and (e.participantLimit = 0 or e.confirmedRequests + :count <= e.participantLimit)")
+    int addConfirmedRequests(@Param("id") Long id, @Param("count") Long count);
+
+    @Modifying
+    @Query("update Event as e set e.views = :views where e.id = :id")
+    void updateViews(@Param("id") Long id, @Param("views") Long views);
+
 }
@@ -0,0 +1,22 @@
+package ru.practicum.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
+import ru.practicum.event.utils.EventState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    List<Event> findEvents(Specification<Event> specification, Pageable pageable);
+
+    List<EventShort> findEventShorts(Specification<Event> specification, Pageable pageable);
+
+    List<Event> searchByRelevance(String text, EventState state, List<Long> categories, Boolean paid,
+                                  LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                  Pageable pageable);
+
+}
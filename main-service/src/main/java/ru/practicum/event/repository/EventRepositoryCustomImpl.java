@@ -0,0 +1,117 @@
+package ru.practicum.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
+import ru.practicum.event.utils.EventState;
+import ru.practicum.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private static final String TS_QUERY = "websearch_to_tsquery('russian', :text)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Event> findEvents(Specification<Event> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        root.fetch("category", JoinType.LEFT);
+        root.fetch("initiator", JoinType.LEFT);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<EventShort> findEventShorts(Specification<Event> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShort> query = cb.createQuery(EventShort.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category");
+        Join<Event, User> initiator = root.join("initiator");
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.construct(EventShort.class,
+                        root.get("id"),
+                        root.get("annotation"),
+                        category.get("id"),
+                        category.get("name"),
+                        root.get("confirmedRequests"),
+                        root.get("eventDate"),
+                        initiator.get("id"),
+                        initiator.get("name"),
+                        root.get("paid"),
+                        root.get("title"),
+                        root.get("views"),
+                        root.get("createdOn")))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Event> searchByRelevance(String text, EventState state, List<Long> categories, Boolean paid,
+                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                         Pageable pageable) {
+        StringBuilder sql = new StringBuilder("SELECT e.* FROM events AS e ")
+                .append("WHERE e.search_vector @@ ").append(TS_QUERY)
+                .append(" AND e.state = :state")
+                .append(" AND e.event_date >= :rangeStart")
+                .append(" AND e.event_date < :rangeEnd");
+        if (categories != null && !categories.isEmpty()) {
+            sql.append(" AND e.category IN (:categories)");
+        }
+        if (paid != null) {
+            sql.append(" AND e.paid = :paid");
+        }
+        if (Boolean.TRUE.equals(onlyAvailable)) {
+            sql.append(" AND (e.participant_limit = 0 OR e.confirmed_request < e.participant_limit)");
+        }
+        sql.append(" ORDER BY ts_rank(e.search_vector, ").append(TS_QUERY).append(") DESC, e.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Event.class)
+                .setParameter("text", text)
+                .setParameter("state", state.name())
+                .setParameter("rangeStart", rangeStart)
+                .setParameter("rangeEnd", rangeEnd);
+        if (categories != null && !categories.isEmpty()) {
+            query.setParameter("categories", categories);
+        }
+        if (paid != null) {
+            query.setParameter("paid", paid);
+        }
+        return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+}
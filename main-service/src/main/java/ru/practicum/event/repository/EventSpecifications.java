@@ -0,0 +1,96 @@
+package ru.practicum.event.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.utils.EventState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@UtilityClass
+public class EventSpecifications {
+
+    public static Specification<Event> initiatorIn(Collection<Long> users) {
+        if (users == null || users.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("initiator").get("id").in(users);
+    }
+
+    public static Specification<Event> stateIn(Collection<EventState> states) {
+        if (states == null || states.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("state").in(states);
+    }
+
+    public static Specification<Event> stateIs(EventState state) {
+        return (root, query, cb) -> cb.equal(root.get("state"), state);
+    }
+
+    public static Specification<Event> categoryIn(Collection<Long> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("category").get("id").in(categories);
+    }
+
+    public static Specification<Event> paidIs(Boolean paid) {
+        if (paid == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("paid"), paid);
+    }
+
+    public static Specification<Event> textContains(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + text.toUpperCase() + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.upper(root.get("annotation")), pattern),
+                cb.like(cb.upper(root.get("description")), pattern));
+    }
+
+    public static Specification<Event> eventDateAfter(LocalDateTime rangeStart) {
+        return (root, query, cb) -> cb.greaterThan(root.get("eventDate"), rangeStart);
+    }
+
+    public static Specification<Event> eventDateFrom(LocalDateTime rangeStart) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventDate"), rangeStart);
+    }
+
+    public static Specification<Event> eventDateBefore(LocalDateTime rangeEnd) {
+        if (rangeEnd == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("eventDate"), rangeEnd);
+    }
+
+    public static Specification<Event> onlyAvailable(Boolean onlyAvailable) {
+        if (onlyAvailable == null || !onlyAvailable) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("participantLimit"), 0),
+                cb.lessThan(root.<Long>get("confirmedRequests"), root.<Integer>get("participantLimit").as(Long.class)));
+    }
+
+    public static Specification<Event> idAfter(Long afterId) {
+        if (afterId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<Event> eventDateAndIdAfter(LocalDateTime afterDate, Long afterId) {
+        if (afterDate == null || afterId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("eventDate"), afterDate),
+                cb.and(cb.equal(root.get("eventDate"), afterDate), cb.greaterThan(root.get("id"), afterId)));
+    }
+
+}
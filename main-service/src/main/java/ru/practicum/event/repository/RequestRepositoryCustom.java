@@ -0,0 +1,15 @@
+package ru.practicum.event.repository;
+
+import ru.practicum.event.model.RequestView;
+import ru.practicum.event.utils.RequestStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestRepositoryCustom {
+
+    List<RequestView> updatePendingStatus(Long eventId, Collection<Long> ids, RequestStatus status);
+
+    List<RequestView> rejectAllPending(Long eventId);
+
+}
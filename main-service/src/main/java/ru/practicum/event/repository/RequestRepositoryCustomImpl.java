@@ -0,0 +1,78 @@
+package ru.practicum.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.event.model.RequestView;
+import ru.practicum.event.utils.RequestStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RequestRepositoryCustomImpl implements RequestRepositoryCustom {
+
+    private static final String UPDATE_PENDING_STATUS = "UPDATE requests SET status = :status " +
+            "WHERE id IN (:ids) AND event = :eventId AND status = 'PENDING' " +
+            "RETURNING id, created, event, requester, status";
+
+    private static final String REJECT_ALL_PENDING = "UPDATE requests SET status = 'REJECTED' " +
+            "WHERE event = :eventId AND status = 'PENDING' " +
+            "RETURNING id, created, event, requester, status";
+
+    private static final RowMapper<RequestView> REQUEST_VIEW_MAPPER = (rs, rowNum) -> new RequestRow(
+            rs.getLong("id"),
+            rs.getTimestamp("created") == null ? null : rs.getTimestamp("created").toLocalDateTime(),
+            rs.getLong("event"),
+            rs.getLong("requester"),
+            RequestStatus.valueOf(rs.getString("status")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RequestView> updatePendingStatus(Long eventId, Collection<Long> ids, RequestStatus status) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return update(UPDATE_PENDING_STATUS, new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("ids", ids)
+                .addValue("status", status.name()));
+    }
+
+    @Override
+    public List<RequestView> rejectAllPending(Long eventId) {
+        return update(REJECT_ALL_PENDING, new MapSqlParameterSource("eventId", eventId));
+    }
+
+    private List<RequestView> update(String sql, MapSqlParameterSource params) {
+        entityManager.flush();
+        List<RequestView> requests = jdbcTemplate.query(sql, params, REQUEST_VIEW_MAPPER);
+        entityManager.clear();
+        return requests;
+    }
+
+    @Value
+    private static class RequestRow implements RequestView {
+
+        Long id;
+
+        LocalDateTime created;
+
+        Long event;
+
+        Long requester;
+
+        RequestStatus status;
+
+    }
+
+}
@@ -2,6 +2,7 @@ package ru.practicum.event.service;
 
 import ru.practicum.event.dto.*;
 import ru.practicum.event.utils.EventState;
+import ru.practicum.pagination.Cursor;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
@@ -9,7 +10,7 @@ import java.util.List;
 
 public interface EventService {
 
-    List<EventShortDto> getPrivateEvents(Long userId, Integer from, Integer size);
+    List<EventShortDto> getPrivateEvents(Long userId, Integer from, Integer size, Cursor cursor);
 
     EventFullDto savePrivateEvent(Long userId, NewEventDto newEventDto);
 
@@ -18,13 +19,14 @@ public interface EventService {
     EventFullDto updatePrivateEvent(Long userId, Long eventId, UpdateEventUserRequest updateEventUserRequest);
 
     List<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                      LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size);
+                                      LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size,
+                                      Cursor cursor);
 
     EventFullDto updateAdminEvent(Long eventId, UpdateEventAdminRequest updateEventAdminRequest);
 
     List<EventShortDto> getPublicEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
                                         LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                        Integer size, HttpServletRequest request);
+                                        Integer size, Cursor cursor, HttpServletRequest request);
 
     EventFullDto getPublicEventById(Long id, HttpServletRequest request);
 }
@@ -2,25 +2,29 @@ package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.StatsClient;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.repository.CategoryRepository;
 import ru.practicum.dto.HitDto;
-import ru.practicum.dto.StatDto;
 import ru.practicum.event.dto.*;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.event.utils.EventSort;
 import ru.practicum.event.utils.EventState;
 import ru.practicum.exception.BadRequestException;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.Cursor;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
 
@@ -29,6 +33,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.event.repository.EventSpecifications.*;
 
 @Service
 @Slf4j
@@ -40,13 +47,18 @@ public class EventServiceImpl implements EventService {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final StatsClient statsClient;
+    private final ViewService viewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<EventShortDto> getPrivateEvents(Long userId, Integer from, Integer size) {
-        log.info("Получение списка событий пользователя с id = {}, from {}, size {}", userId, from, size);
+    public List<EventShortDto> getPrivateEvents(Long userId, Integer from, Integer size, Cursor cursor) {
+        log.info("Получение списка событий пользователя с id = {}, from {}, size {}, cursor {}",
+                userId, from, size, cursor);
         checkUser(userId);
-        PageRequest page = PageRequest.of(from, size);
-        List<Event> events = eventRepository.findAllByInitiatorId(userId, page);
+        List<Event> events = cursor == null
+                ? eventRepository.findAllByInitiatorId(userId, PageRequest.of(from, size, Sort.by("id")))
+                : eventRepository.findAllByInitiatorIdAndIdGreaterThanOrderByIdAsc(userId, cursor.getId(),
+                PageRequest.of(0, size));
         return events.stream()
                 .map(EventMapper.INSTANCE::toEventShortDto)
                 .collect(Collectors.toList());
@@ -140,23 +152,28 @@ public class EventServiceImpl implements EventService {
 
         Optional.ofNullable(updateEventUserRequest.getTitle()).ifPresent(event::setTitle);
 
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
         log.info("Событие с id = {} обновлено пользователем с id = {}.", eventId, userId);
         return EventMapper.INSTANCE.toEventFullDto(eventRepository.save(event));
     }
 
     @Override
     public List<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                             LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
+                                             LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size,
+                                             Cursor cursor) {
         log.info("Получение информации о событиях с параметрами: users {}, states {}, categories {}, " +
-                "rangeStart {}, rangeEnd {}, from {}, size {}", users, states, categories, rangeStart, rangeEnd, from, size);
+                "rangeStart {}, rangeEnd {}, from {}, size {}, cursor {}",
+                users, states, categories, rangeStart, rangeEnd, from, size, cursor);
         validateDates(rangeStart, rangeEnd);
-        PageRequest page = PageRequest.of(from, size);
-        List<Event> events = eventRepository.findAdminEvents(
-                users, states, categories, getRangeStart(rangeStart), page);
-
-        if (rangeEnd != null) {
-            events = getEventsBeforeRangeEnd(events, rangeEnd);
-        }
+        PageRequest page = cursor == null ? PageRequest.of(from, size, Sort.by("id"))
+                : PageRequest.of(0, size, Sort.by("id"));
+        Specification<Event> specification = Specification.where(initiatorIn(users))
+                .and(stateIn(states))
+                .and(categoryIn(categories))
+                .and(eventDateAfter(getRangeStart(rangeStart)))
+                .and(eventDateBefore(rangeEnd))
+                .and(idAfter(cursor == null ? null : cursor.getId()));
+        List<Event> events = eventRepository.findEvents(specification, page);
 
         return events.stream().map(EventMapper.INSTANCE::toEventFullDto).collect(Collectors.toList());
     }
@@ -221,6 +238,7 @@ public class EventServiceImpl implements EventService {
 
         Optional.ofNullable(updateEventAdminRequest.getTitle()).ifPresent(event::setTitle);
 
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
         log.info("Событие с id = {} обновлено администратором.", eventId);
         return EventMapper.INSTANCE.toEventFullDto(eventRepository.save(event));
     }
@@ -228,44 +246,63 @@ public class EventServiceImpl implements EventService {
     @Override
     public List<EventShortDto> getPublicEvents(String text, List<Long> categories, Boolean paid,
                                                LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
-                                               String sort, Integer from, Integer size, HttpServletRequest request) {
+                                               String sort, Integer from, Integer size, Cursor cursor,
+                                               HttpServletRequest request) {
         validateDates(rangeStart, rangeEnd);
         log.info("Получение событий с возможностью фильтрации.");
         LocalDateTime now = LocalDateTime.now();
         EventState state = EventState.PUBLISHED;
-        String sorting;
+        Sort sorting;
+
+        if (cursor != null && (sort.equals(EventSort.VIEWS.name()) || sort.equals(EventSort.RELEVANCE.name()))) {
+            log.warn("Курсор не поддерживается для сортировки {}.", sort);
+            throw new BadRequestException(String.format("Курсор не поддерживается для сортировки %s.", sort));
+        }
 
         if (sort.equals(EventSort.EVENT_DATE.name())) {
-            sorting = "eventDate";
+            sorting = Sort.by("eventDate").and(Sort.by("id"));
         } else if (sort.equals(EventSort.VIEWS.name())) {
-            sorting = "views";
+            sorting = Sort.by(Sort.Direction.DESC, "views").and(Sort.by("id"));
         } else {
-            sorting = "id";
+            sorting = Sort.by("id");
         }
 
-        PageRequest page = PageRequest.of(from, size, Sort.by(sorting));
-        List<Event> sortedEvents = eventRepository.getEventsSort(text, state, categories, paid,
-                getRangeStart(rangeStart), page);
-
         if (rangeEnd == null) rangeEnd = now.plusYears(2);
 
-        sortedEvents = getEventsBeforeRangeEnd(sortedEvents, rangeEnd);
-
-        if (onlyAvailable) {
-            sortedEvents.removeIf(event -> event.getParticipantLimit().equals(Math.toIntExact(event.getConfirmedRequests())));
+        List<EventShortDto> sortedEvents;
+        LocalDateTime viewsStart;
+        if (sort.equals(EventSort.RELEVANCE.name()) && text != null && !text.isBlank()) {
+            List<Event> events = eventRepository.searchByRelevance(text, state, categories, paid,
+                    getRangeStart(rangeStart), rangeEnd, onlyAvailable, PageRequest.of(from, size));
+            sortedEvents = events.stream().map(EventMapper.INSTANCE::toEventShortDto).collect(Collectors.toList());
+            viewsStart = getEarliest(events.stream().map(Event::getCreatedOn));
+        } else {
+            PageRequest page = cursor == null ? PageRequest.of(from, size, sorting) : PageRequest.of(0, size, sorting);
+            Specification<Event> specification = Specification.where(textContains(text))
+                    .and(stateIs(state))
+                    .and(categoryIn(categories))
+                    .and(paidIs(paid))
+                    .and(eventDateFrom(getRangeStart(rangeStart)))
+                    .and(eventDateBefore(rangeEnd))
+                    .and(onlyAvailable(onlyAvailable));
+            if (cursor != null && sort.equals(EventSort.EVENT_DATE.name())) {
+                specification = specification.and(eventDateAndIdAfter(cursor.getEventDate(), cursor.getId()));
+            } else if (cursor != null) {
+                specification = specification.and(idAfter(cursor.getId()));
+            }
+            List<EventShort> events = eventRepository.findEventShorts(specification, page);
+            sortedEvents = events.stream().map(EventMapper.INSTANCE::toEventShortDto).collect(Collectors.toList());
+            viewsStart = getEarliest(events.stream().map(EventShort::getCreatedOn));
         }
 
         if (sortedEvents.isEmpty()) return Collections.emptyList();
 
-        String uri = request.getRequestURI();
-        LocalDateTime startDate = sortedEvents.stream().map(Event::getCreatedOn).min(Comparator.naturalOrder()).orElse(now);
         saveStats(request);
 
-        Long views = getViews(uri, startDate, now);
-        sortedEvents.forEach(event -> event.setViews(views));
-        return sortedEvents.stream()
-                .map(EventMapper.INSTANCE::toEventShortDto)
-                .collect(Collectors.toList());
+        Map<Long, Long> views = viewService.getViews(
+                sortedEvents.stream().map(EventShortDto::getId).collect(Collectors.toList()), viewsStart);
+        sortedEvents.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
+        return sortedEvents;
     }
 
     @Override
@@ -277,11 +314,9 @@ public class EventServiceImpl implements EventService {
             throw new NotFoundException("Нельзя получить информацию о событии, которое не опубликовано.");
         }
 
-        String uri = request.getRequestURI();
         saveStats(request);
 
-        Long views = getViews(uri, event.getCreatedOn(), LocalDateTime.now());
-        event.setViews(views);
+        viewService.setViews(List.of(event));
         return EventMapper.INSTANCE.toEventFullDto(event);
     }
 
@@ -295,17 +330,6 @@ public class EventServiceImpl implements EventService {
         statsClient.saveStats(hitDto);
     }
 
-    private Long getViews(String uri, LocalDateTime from, LocalDateTime to) {
-        return Optional.ofNullable(statsClient.getStats(from.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        to.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), List.of(uri), true))
-                .map(ResponseEntity::getBody)
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(statDto -> statDto.getUri().equals(uri))
-                .mapToLong(StatDto::getHits)
-                .sum();
-    }
-
     private User checkUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> {
                     log.warn("Пользователь с id = {} не найден.", userId);
@@ -338,8 +362,8 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private List<Event> getEventsBeforeRangeEnd(List<Event> events, LocalDateTime rangeEnd) {
-        return events.stream().filter(event -> event.getEventDate().isBefore(rangeEnd)).collect(Collectors.toList());
+    private LocalDateTime getEarliest(Stream<LocalDateTime> dates) {
+        return dates.filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
     }
 
     private LocalDateTime getRangeStart(LocalDateTime rangeStart) {
@@ -2,14 +2,18 @@ package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.event.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.event.dto.EventRequestStatusUpdateResult;
 import ru.practicum.event.dto.ParticipationRequestDto;
 import ru.practicum.event.mapper.RequestMapper;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.model.Request;
+import ru.practicum.event.model.RequestView;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.event.repository.RequestRepository;
 import ru.practicum.event.utils.EventState;
@@ -20,7 +24,6 @@ import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,6 +36,7 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId) {
@@ -53,7 +57,7 @@ public class RequestServiceImpl implements RequestService {
         log.info("Изменение статуса заявок на участие в событии с id = {}" +
                 " от пользователя с id = {}", eventId, userId);
         checkUser(userId);
-        Event event = checkEvent(eventId);
+        Event event = checkEventForUpdate(eventId);
         if (!event.getInitiator().getId().equals(userId)) {
             log.warn("Изменить данные события может только организатор.");
             throw new ConflictException("Изменить данные события может только организатор.");
@@ -67,7 +71,7 @@ public class RequestServiceImpl implements RequestService {
         List<Long> requestIds = eventRequestStatusUpdateRequest.getRequestIds();
         switch (eventRequestStatusUpdateRequest.getStatus()) {
             case REJECTED:
-                return addStatusRejected(requestIds);
+                return addStatusRejected(eventId, requestIds);
             case CONFIRMED:
                 return addStatusConfirmed(requestIds, event);
             default:
@@ -110,8 +114,11 @@ public class RequestServiceImpl implements RequestService {
         }
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
             requestStatus = RequestStatus.CONFIRMED;
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            eventRepository.save(event);
+            if (eventRepository.addConfirmedRequests(eventId, 1L) == 0) {
+                log.warn("Достигнут лимит запросов на участие.");
+                throw new ConflictException("Достигнут лимит запросов на участие.");
+            }
+            eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
         } else {
             requestStatus = RequestStatus.PENDING;
         }
@@ -136,15 +143,10 @@ public class RequestServiceImpl implements RequestService {
         return RequestMapper.INSTANCE.toParticipationRequestDto(requestRepository.save(request));
     }
 
-    private EventRequestStatusUpdateResult addStatusRejected(List<Long> requestIds) {
-        List<Request> requests = requestRepository.findAllById(requestIds);
-        checkStatusIsPending(requests);
-        requests.forEach(request -> request.setStatus(RequestStatus.REJECTED));
-        requestRepository.saveAll(requests);
-        List<ParticipationRequestDto> rejectedRequests = requests
-                .stream()
-                .map(RequestMapper.INSTANCE::toParticipationRequestDto)
-                .collect(Collectors.toList());
+    private EventRequestStatusUpdateResult addStatusRejected(Long eventId, List<Long> requestIds) {
+        checkStatusIsPending(requestIds);
+        List<ParticipationRequestDto> rejectedRequests = toParticipationRequestDtos(
+                requestRepository.updatePendingStatus(eventId, requestIds, RequestStatus.REJECTED));
         return new EventRequestStatusUpdateResult(List.of(), rejectedRequests);
     }
 
@@ -156,52 +158,39 @@ public class RequestServiceImpl implements RequestService {
             log.warn("Лимит заявок для события исчерпан.");
             throw new ConflictException("Лимит заявок для события исчерпан.");
         }
-        List<Request> confirmedRequests;
-        if (requestIds.size() > (limit - confirmedRequestsCount)) {
-            confirmedRequests = requestRepository.findAllById(requestIds
-                    .stream()
-                    .limit(limit - confirmedRequestsCount)
-                    .collect(Collectors.toList()));
-        } else {
-            confirmedRequests = requestRepository.findAllById(requestIds);
-        }
-        checkStatusIsPending(confirmedRequests);
-        for (Request req : confirmedRequests) {
-            req.setStatus(RequestStatus.CONFIRMED);
-            confirmedRequestsCount++;
+        List<Long> idsToConfirm = requestIds.stream()
+                .limit(limit - confirmedRequestsCount)
+                .collect(Collectors.toList());
+        checkStatusIsPending(idsToConfirm);
+        List<ParticipationRequestDto> confirmedRequests = toParticipationRequestDtos(
+                requestRepository.updatePendingStatus(event.getId(), idsToConfirm, RequestStatus.CONFIRMED));
+        confirmedRequestsCount += confirmedRequests.size();
+        if (!confirmedRequests.isEmpty()
+                && eventRepository.addConfirmedRequests(event.getId(), (long) confirmedRequests.size()) == 0) {
+            log.warn("Лимит заявок для события исчерпан.");
+            throw new ConflictException("Лимит заявок для события исчерпан.");
         }
-        List<Request> rejectedRequests = new ArrayList<>();
-        List<Long> listId = confirmedRequests.stream().map(Request::getId).collect(Collectors.toList());
+        List<ParticipationRequestDto> rejectedRequests = List.of();
         if (limit == confirmedRequestsCount) {
-            rejectedRequests = requestRepository.findAllByEvent_IdAndIdNotInAndStatus(
-                            event.getId(), listId, RequestStatus.PENDING)
-                    .stream()
-                    .peek(request -> request.setStatus(RequestStatus.REJECTED))
-                    .collect(Collectors.toList());
+            rejectedRequests = toParticipationRequestDtos(requestRepository.rejectAllPending(event.getId()));
         }
-        List<Request> updateRequests = new ArrayList<>(confirmedRequests);
-        updateRequests.addAll(rejectedRequests);
-        requestRepository.saveAll(updateRequests);
-        event.setConfirmedRequests(confirmedRequestsCount);
-        eventRepository.save(event);
-        return new EventRequestStatusUpdateResult(
-                confirmedRequests.stream()
-                        .map(RequestMapper.INSTANCE::toParticipationRequestDto)
-                        .collect(Collectors.toList()),
-                rejectedRequests.stream()
-                        .map(RequestMapper.INSTANCE::toParticipationRequestDto)
-                        .collect(Collectors.toList()));
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
+        return new EventRequestStatusUpdateResult(confirmedRequests, rejectedRequests);
     }
 
-    private void checkStatusIsPending(List<Request> requests) {
-        boolean isConfirmedRequest = requests.stream()
-                .anyMatch(request -> !request.getStatus().equals(RequestStatus.PENDING));
-        if (isConfirmedRequest) {
+    private void checkStatusIsPending(List<Long> requestIds) {
+        if (!requestIds.isEmpty() && requestRepository.existsByIdInAndStatusNot(requestIds, RequestStatus.PENDING)) {
             log.warn("Статус можно изменить только у заявок, находящихся в состоянии ожидания.");
             throw new ConflictException("Статус можно изменить только у заявок, находящихся в состоянии ожидания.");
         }
     }
 
+    private List<ParticipationRequestDto> toParticipationRequestDtos(List<RequestView> requests) {
+        return requests.stream()
+                .map(RequestMapper.INSTANCE::toParticipationRequestDto)
+                .collect(Collectors.toList());
+    }
+
     private User checkUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> {
                     log.warn("Пользователь с id = {} не найден.", userId);
@@ -218,6 +207,14 @@ public class RequestServiceImpl implements RequestService {
         );
     }
 
+    private Event checkEventForUpdate(Long eventId) {
+        return eventRepository.findByIdForUpdate(eventId).orElseThrow(() -> {
+                    log.warn("Событие с id = {} не найдена.", eventId);
+                    return new NotFoundException(String.format("Событие с id %d не найдено.", eventId));
+                }
+        );
+    }
+
     private Request checkRequest(Long requestId) {
         return requestRepository.findById(requestId).orElseThrow(() -> {
                     log.warn("Запрос с id = {} на участие в событии не найден.", requestId);
@@ -0,0 +1,20 @@
+package ru.practicum.event.service;
+
+import ru.practicum.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ViewService {
+
+    Map<Long, Long> getViews(List<Event> events);
+
+    Map<Long, Long> getViews(Collection<Long> eventIds, LocalDateTime start);
+
+    void setViews(List<Event> events);
+
+    void syncViews();
+
+}
@@ -0,0 +1,122 @@
+package ru.practicum.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.StatsClient;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.repository.EventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ViewServiceImpl implements ViewService {
+
+    private static final String EVENT_URI = "/events/";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime FIRST_SYNC_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final int SYNC_CHUNK_SIZE = 500;
+
+    private final StatsClient statsClient;
+    private final EventRepository eventRepository;
+
+    private LocalDateTime lastSync;
+
+    @Override
+    public Map<Long, Long> getViews(List<Event> events) {
+        LocalDateTime start = events.stream()
+                .map(Event::getCreatedOn)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        return getViews(events.stream().map(Event::getId).collect(Collectors.toList()), start);
+    }
+
+    @Override
+    public Map<Long, Long> getViews(Collection<Long> eventIds, LocalDateTime start) {
+        if (eventIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (start == null) {
+            start = now;
+        }
+        List<String> uris = eventIds.stream()
+                .map(eventId -> EVENT_URI + eventId)
+                .distinct()
+                .collect(Collectors.toList());
+        log.info("Получение просмотров для {} событий одним запросом к сервису статистики", uris.size());
+
+        Map<Long, Long> views = new HashMap<>();
+        Optional.ofNullable(statsClient.getStats(start.format(FORMATTER), now.format(FORMATTER), uris, true))
+                .map(ResponseEntity::getBody)
+                .stream()
+                .flatMap(Collection::stream)
+                .forEach(statDto -> {
+                    Long eventId = toEventId(statDto.getUri());
+                    if (eventId != null) {
+                        views.merge(eventId, statDto.getHits(), Long::sum);
+                    }
+                });
+        return views;
+    }
+
+    @Override
+    public void setViews(List<Event> events) {
+        Map<Long, Long> views = getViews(events);
+        events.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${stats-server.views.sync-interval:60000}")
+    public void syncViews() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = lastSync == null ? FIRST_SYNC_START : lastSync.minus(SYNC_OVERLAP);
+        List<Long> eventIds;
+        try {
+            eventIds = Optional.ofNullable(statsClient.getStats(start.format(FORMATTER), now.format(FORMATTER),
+                            null, false))
+                    .map(ResponseEntity::getBody)
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .map(statDto -> toEventId(statDto.getUri()))
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось получить изменившиеся просмотры из сервиса статистики: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < eventIds.size(); i += SYNC_CHUNK_SIZE) {
+            List<Event> events = eventRepository.findAllById(eventIds.subList(i,
+                    Math.min(i + SYNC_CHUNK_SIZE, eventIds.size())));
+            getViews(events).forEach(eventRepository::updateViews);
+        }
+        lastSync = now;
+        log.info("Синхронизированы просмотры {} событий", eventIds.size());
+    }
+
+    private Long toEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(uri.substring(EVENT_URI.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
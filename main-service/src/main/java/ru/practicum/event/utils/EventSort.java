@@ -1,5 +1,5 @@
 package ru.practicum.event.utils;
 
 public enum EventSort {
-    EVENT_DATE, VIEWS
+    EVENT_DATE, VIEWS, RELEVANCE
 }
@@ -0,0 +1,61 @@
+package ru.practicum.pagination;
+
+import lombok.Value;
+import ru.practicum.exception.BadRequestException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Value
+public class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime eventDate;
+
+    Long id;
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime eventDate, Long id) {
+        return new Cursor(eventDate, id);
+    }
+
+    public static Cursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(decoded));
+            }
+            return of(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(String.format("Некорректный курсор: %s", value));
+        }
+    }
+
+    public static <T> void addNextCursorHeader(HttpServletResponse response, List<T> items, Integer size,
+                                               Function<T, Cursor> toCursor) {
+        if (!items.isEmpty() && items.size() >= size) {
+            response.setHeader(NEXT_CURSOR_HEADER, toCursor.apply(items.get(items.size() - 1)).encode());
+        }
+    }
+
+    public String encode() {
+        String value = eventDate == null ? String.valueOf(id) : eventDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.mapper.EventMapper;
-import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShort;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.event.utils.EventState;
 import ru.practicum.exception.BadRequestException;
@@ -96,7 +96,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             log.warn("Нельзя получить список собственных событий.");
             throw new ConflictException("Нельзя получить список собственных событий.");
         }
-        List<Event> events;
+        List<EventShort> events;
         Subscription subscription = subscriptionRepository.findByInitiatorIdAndUserForSubscribeId(initiatorId, userForSubscribeId);
         if (subscription == null) {
             log.info("Подписка на пользователя с id = {} не найдена.", userForSubscribeId);
@@ -107,10 +107,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             throw new BadRequestException("Нельзя получить список событий, подписка еще не подтверждена организатором.");
         }
         PageRequest page = PageRequest.of(from, size);
-        events = eventRepository.findSubscriptionEvents(userForSubscribeId, EventState.PUBLISHED, getRangeStart(rangeStart), page);
-        if (rangeEnd != null) {
-            events = getEventsBeforeRangeEnd(events, rangeEnd);
-        }
+        events = eventRepository.findSubscriptionEvents(userForSubscribeId, EventState.PUBLISHED,
+                getRangeStart(rangeStart), rangeEnd, page);
         return events.stream().map(EventMapper.INSTANCE::toEventShortDto).collect(Collectors.toList());
     }
 
@@ -185,8 +183,4 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         if (rangeStart == null) return LocalDateTime.now();
         return rangeStart;
     }
-
-    private List<Event> getEventsBeforeRangeEnd(List<Event> events, LocalDateTime rangeEnd) {
-        return events.stream().filter(event -> event.getEventDate().isBefore(rangeEnd)).collect(Collectors.toList());
-    }
 }
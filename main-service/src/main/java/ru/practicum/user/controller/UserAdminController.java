@@ -5,10 +5,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.pagination.Cursor;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -33,9 +35,13 @@ public class UserAdminController {
     @GetMapping
     public List<UserDto> findAllUsers(@RequestParam(required = false) List<Long> ids,
                                       @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                      @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Запрос на получение списка пользователей: ids {}, from {}, size {}", ids, from, size);
-        return userService.getAll(ids, from, size);
+                                      @RequestParam(defaultValue = "10") @Positive Integer size,
+                                      @RequestParam(required = false) String cursor,
+                                      HttpServletResponse response) {
+        log.info("Запрос на получение списка пользователей: ids {}, from {}, size {}, cursor {}", ids, from, size, cursor);
+        List<UserDto> users = userService.getAll(ids, from, size, Cursor.decode(cursor));
+        Cursor.addNextCursorHeader(response, users, size, user -> Cursor.of(user.getId()));
+        return users;
     }
 
     @DeleteMapping("/{userId}")
@@ -1,13 +1,24 @@
 package ru.practicum.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findAllByIdIn(List<Long> ids, Pageable pageable);
 
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<User> findAllByIdInAndIdGreaterThanOrderByIdAsc(List<Long> ids, Long afterId, Pageable pageable);
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.USERS, unless = "#result == null")
+    Optional<User> findById(Long id);
+
 }
@@ -1,5 +1,6 @@
 package ru.practicum.user.service;
 
+import ru.practicum.pagination.Cursor;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 
@@ -9,7 +10,7 @@ public interface UserService {
 
     UserDto saveUser(NewUserRequest newUserRequest);
 
-    List<UserDto> getAll(List<Long> ids, Integer from, Integer size);
+    List<UserDto> getAll(List<Long> ids, Integer from, Integer size, Cursor cursor);
 
     void deleteUserById(Long id);
 
@@ -2,10 +2,15 @@ package ru.practicum.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CacheEvictEvent;
+import ru.practicum.cache.CacheNames;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.Cursor;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.mapper.UserMapper;
@@ -22,6 +27,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto saveUser(NewUserRequest newUserRequest) {
@@ -33,12 +39,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAll(List<Long> ids, Integer from, Integer size) {
-        log.info("Получение списка пользователей: ids {}, from = {}, size = {}", ids, from, size);
+    public List<UserDto> getAll(List<Long> ids, Integer from, Integer size, Cursor cursor) {
+        log.info("Получение списка пользователей: ids {}, from = {}, size = {}, cursor {}", ids, from, size, cursor);
         List<User> userList;
-        PageRequest page = PageRequest.of(from, size);
+        PageRequest page = PageRequest.of(from, size, Sort.by("id"));
 
-        if (ids == null) {
+        if (cursor != null) {
+            page = PageRequest.of(0, size);
+            userList = ids == null
+                    ? userRepository.findAllByIdGreaterThanOrderByIdAsc(cursor.getId(), page)
+                    : userRepository.findAllByIdInAndIdGreaterThanOrderByIdAsc(ids, cursor.getId(), page);
+        } else if (ids == null) {
             userList = userRepository.findAll(page).toList();
         } else {
             userList = userRepository.findAllByIdIn(ids, page);
@@ -57,6 +68,8 @@ public class UserServiceImpl implements UserService {
                 }
         );
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(CacheEvictEvent.of(CacheNames.USERS, userId));
+        eventPublisher.publishEvent(CacheEvictEvent.all(CacheNames.COMPILATIONS));
         log.info("Пользователь с id = {} удален.", userId);
     }
 }
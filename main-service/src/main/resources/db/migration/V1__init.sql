@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, categories, events, requests, compilations, compilation_event, subscriptions CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     email VARCHAR(254) UNIQUE NOT NULL,
@@ -27,9 +25,21 @@ CREATE TABLE IF NOT EXISTS events (
     published_on TIMESTAMP WITHOUT TIME ZONE,
     request_moderation BOOLEAN DEFAULT true,
     state VARCHAR(32) DEFAULT 'PENDING',
-    title VARCHAR(120) NOT NULL
+    title VARCHAR(120) NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(annotation, '')), 'B') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'C')) STORED
     );
 
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(annotation, '')), 'B') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'C')) STORED;
+
 CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     created TIMESTAMP WITHOUT TIME ZONE,
@@ -55,4 +65,4 @@ CREATE TABLE IF NOT EXISTS subscriptions (
     initiator BIGINT REFERENCES users(id) ON DELETE CASCADE,
     user_for_subscribe BIGINT REFERENCES users(id) ON DELETE CASCADE,
     status VARCHAR(16) DEFAULT 'WAITING'
-);
\ No newline at end of file
+);
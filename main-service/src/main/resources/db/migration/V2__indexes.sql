@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS events_initiator_idx ON events (initiator, id);
+CREATE INDEX IF NOT EXISTS events_category_idx ON events (category);
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date, id);
+CREATE INDEX IF NOT EXISTS events_state_views_idx ON events (state, views DESC, id);
+CREATE INDEX IF NOT EXISTS events_search_vector_idx ON events USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS events_annotation_trgm_idx ON events USING GIN (upper(annotation) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS events_description_trgm_idx ON events USING GIN (upper(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS requests_event_status_idx ON requests (event, status);
+CREATE INDEX IF NOT EXISTS requests_requester_event_idx ON requests (requester, event);
+
+CREATE INDEX IF NOT EXISTS compilations_pinned_idx ON compilations (pinned, id);
+CREATE INDEX IF NOT EXISTS compilation_event_compilation_idx ON compilation_event (compilation_id, event_id);
+
+CREATE INDEX IF NOT EXISTS subscriptions_initiator_user_idx ON subscriptions (initiator, user_for_subscribe);
+CREATE INDEX IF NOT EXISTS subscriptions_user_status_idx ON subscriptions (user_for_subscribe, status);
@@ -0,0 +1,112 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.repository.RequestRepository;
+import ru.practicum.subscription.repository.SubscriptionRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.SqlCapture")
+class IndexUsageIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 100;
+    private static final int EVENTS = 20_000;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE subscriptions, requests, events, categories, users RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, ?) AS i", USERS);
+        jdbcTemplate.update("INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, 50) AS i");
+        jdbcTemplate.update("INSERT INTO events (annotation, category, confirmed_request, created_on, description, " +
+                "event_date, initiator, lat, lon, paid, participant_limit, published_on, request_moderation, " +
+                "state, title) " +
+                "SELECT 'annotation ' || i, i % 50 + 1, 0, now(), 'description ' || i, " +
+                "now() + i % 730 * interval '1 day', i % ? + 1, 55.75, 37.62, false, 0, now(), true, " +
+                "CASE WHEN i % 10 = 0 THEN 'PENDING' ELSE 'PUBLISHED' END, 'title ' || i " +
+                "FROM generate_series(1, ?) AS i", USERS, EVENTS);
+        jdbcTemplate.update("INSERT INTO requests (created, event, requester, status) " +
+                "SELECT now(), i % ? + 1, i % ? + 1, CASE WHEN i % 3 = 0 THEN 'CONFIRMED' ELSE 'PENDING' END " +
+                "FROM generate_series(1, ?) AS i", EVENTS, USERS, 2 * EVENTS);
+        jdbcTemplate.update("INSERT INTO subscriptions (initiator, user_for_subscribe, status) " +
+                "SELECT a, b, 'CONFIRMED' FROM generate_series(1, ?) AS a, generate_series(1, ?) AS b WHERE a <> b",
+                USERS, USERS);
+        jdbcTemplate.execute("ANALYZE users, categories, events, requests, subscriptions");
+    }
+
+    @Test
+    void findAllByInitiatorIdShouldUseInitiatorIndex() {
+        SqlCapture.clear();
+        eventRepository.findAllByInitiatorId(7L, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(explain(7L, 10)).contains("events_initiator_idx");
+    }
+
+    @Test
+    void findByCategoryIdShouldUseCategoryIndex() {
+        SqlCapture.clear();
+        eventRepository.findByCategoryId(7L);
+
+        assertThat(explain(7L)).contains("events_category_idx");
+    }
+
+    @Test
+    void existsByRequesterIdAndEventIdShouldUseRequesterIndex() {
+        SqlCapture.clear();
+        requestRepository.existsByRequesterIdAndEventId(7L, 107L);
+
+        assertThat(explain(7L, 107L, 1)).contains("requests_requester_event_idx");
+    }
+
+    @Test
+    void findAllByEventInitiatorIdAndEventIdShouldUseEventIndex() {
+        SqlCapture.clear();
+        requestRepository.findAllByEvent_InitiatorIdAndEventId(8L, 107L);
+
+        assertThat(explain(8L, 107L)).contains("requests_event_status_idx");
+    }
+
+    @Test
+    void existsByInitiatorIdAndUserForSubscribeIdShouldUseInitiatorIndex() {
+        SqlCapture.clear();
+        subscriptionRepository.existsByInitiatorIdAndUserForSubscribeId(7L, 8L);
+
+        assertThat(explain(7L, 8L, 1)).contains("subscriptions_initiator_user_idx");
+    }
+
+    @Test
+    void findAllByUserForSubscribeIdShouldUseUserIndex() {
+        SqlCapture.clear();
+        subscriptionRepository.findAllByUserForSubscribeId(7L);
+
+        assertThat(explain(7L)).contains("subscriptions_user_status_idx");
+    }
+
+    private String explain(Object... params) {
+        String sql = SqlCapture.statements().get(0);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+    }
+
+}
@@ -0,0 +1,134 @@
+package ru.practicum.event.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.PostgresIntegrationTest;
+import ru.practicum.SqlCapture;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.utils.EventState;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.event.repository.EventSpecifications.categoryIn;
+import static ru.practicum.event.repository.EventSpecifications.eventDateBefore;
+import static ru.practicum.event.repository.EventSpecifications.eventDateFrom;
+import static ru.practicum.event.repository.EventSpecifications.paidIs;
+import static ru.practicum.event.repository.EventSpecifications.stateIs;
+import static ru.practicum.event.repository.EventSpecifications.textContains;
+
+@Slf4j
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.SqlCapture")
+class EventFilterPlanBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int EVENTS = 20_000;
+    private static final int RUNS = 20;
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("eventDate").and(Sort.by("id")));
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE requests, events, categories, users RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, 100) AS i");
+        jdbcTemplate.update("INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, 50) AS i");
+        jdbcTemplate.update("INSERT INTO events (annotation, category, confirmed_request, created_on, description, " +
+                "event_date, initiator, lat, lon, paid, participant_limit, published_on, request_moderation, " +
+                "state, title) " +
+                "SELECT 'annotation ' || CASE WHEN i % 100 = 0 THEN 'concert ' ELSE '' END || i, i % 50 + 1, 0, " +
+                "now() - interval '1 day', 'description ' || i, now() + i % 730 * interval '1 day', i % 100 + 1, " +
+                "55.75, 37.62, i % 2 = 0, 0, now(), false, " +
+                "CASE WHEN i % 10 = 0 THEN 'PENDING' ELSE 'PUBLISHED' END, 'title ' || i " +
+                "FROM generate_series(1, ?) AS i", EVENTS);
+        jdbcTemplate.execute("ANALYZE events");
+    }
+
+    @Test
+    void eachFilterCombinationShouldGetItsOwnStatement() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Specification<Event>> combinations = new LinkedHashMap<>();
+        combinations.put("category", Specification.where(stateIs(EventState.PUBLISHED))
+                .and(categoryIn(List.of(7L))));
+        combinations.put("text+paid", Specification.where(textContains("concert"))
+                .and(stateIs(EventState.PUBLISHED))
+                .and(paidIs(true)));
+        combinations.put("date range", Specification.where(stateIs(EventState.PUBLISHED))
+                .and(eventDateFrom(now.plusDays(30)))
+                .and(eventDateBefore(now.plusDays(60))));
+
+        Map<String, String> statements = new LinkedHashMap<>();
+        combinations.forEach((name, specification) -> {
+            SqlCapture.clear();
+            eventRepository.findEventShorts(specification, PAGE);
+            List<String> captured = SqlCapture.statements();
+            assertThat(captured).as(name).hasSize(1);
+            statements.put(name, captured.get(0));
+
+            long startTime = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                eventRepository.findEventShorts(specification, PAGE);
+            }
+            log.info("Фильтр {}: {} мкс на запрос, план:\n{}", name,
+                    (System.nanoTime() - startTime) / 1_000 / RUNS, explain(captured.get(0)));
+        });
+
+        statements.values().forEach(sql -> assertThat(where(sql)).doesNotContain(" is null"));
+        assertThat(where(statements.get("category")))
+                .contains("category").doesNotContain("like").doesNotContain("paid").doesNotContain("event_date");
+        assertThat(where(statements.get("text+paid")))
+                .contains("like").contains("paid").doesNotContain("category").doesNotContain("event_date");
+        assertThat(where(statements.get("date range")))
+                .contains("event_date").doesNotContain("like").doesNotContain("paid").doesNotContain("category");
+    }
+
+    private static String where(String sql) {
+        String lower = sql.toLowerCase();
+        return lower.substring(lower.indexOf(" where "), lower.indexOf(" order by "));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Statement statement) -> {
+            int parameters = 0;
+            StringBuilder prepared = new StringBuilder();
+            for (char c : sql.toCharArray()) {
+                prepared.append(c == '?' ? "$" + ++parameters : String.valueOf(c));
+            }
+            StringJoiner nulls = new StringJoiner(", ", "(", ")");
+            for (int i = 0; i < parameters; i++) {
+                nulls.add("NULL");
+            }
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+            statement.execute("PREPARE event_filter AS " + prepared);
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rows = statement.executeQuery("EXPLAIN EXECUTE event_filter" + nulls)) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            } finally {
+                statement.execute("DEALLOCATE event_filter");
+                statement.execute("RESET plan_cache_mode");
+            }
+            return plan.toString();
+        });
+    }
+
+}
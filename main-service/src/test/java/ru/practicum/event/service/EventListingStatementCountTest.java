@@ -0,0 +1,83 @@
+package ru.practicum.event.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.PostgresIntegrationTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "stats-server.views.sync-interval=3600000"})
+class EventListingStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int EVENTS = 30;
+    private static final long INITIATOR = 1L;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE requests, events, categories, users RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, ?) AS i", EVENTS);
+        jdbcTemplate.update("INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, ?) AS i",
+                EVENTS);
+        jdbcTemplate.update("INSERT INTO events (annotation, category, confirmed_request, created_on, description, " +
+                "event_date, initiator, lat, lon, paid, participant_limit, published_on, request_moderation, " +
+                "state, title) " +
+                "SELECT 'annotation ' || i, i % ? + 1, 0, now(), 'description ' || i, now() + i * interval '1 day', " +
+                "CASE WHEN i <= ? THEN ? ELSE i - ? END, 55.75, 37.62, false, 0, now(), false, 'PUBLISHED', " +
+                "'title ' || i FROM generate_series(1, ?) AS i", EVENTS, EVENTS, INITIATOR, EVENTS, 2 * EVENTS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAdminEventsShouldNotDependOnPageSize() {
+        assertConstantStatements(size -> eventService.getAdminEvents(null, null, null, null, null, 0, size, null)
+                .size());
+    }
+
+    @Test
+    void getPublicEventsShouldNotDependOnPageSize() {
+        assertConstantStatements(size -> eventService.getPublicEvents(null, null, null, null, null, false,
+                "EVENT_DATE", 0, size, null, new MockHttpServletRequest("GET", "/events")).size());
+    }
+
+    @Test
+    void getPrivateEventsShouldNotDependOnPageSize() {
+        assertConstantStatements(size -> eventService.getPrivateEvents(INITIATOR, 0, size, null).size());
+    }
+
+    private void assertConstantStatements(IntFunction<Integer> listing) {
+        long single = countStatements(listing, 1);
+        long page = countStatements(listing, EVENTS);
+
+        assertThat(page).isEqualTo(single);
+    }
+
+    private long countStatements(IntFunction<Integer> listing, int size) {
+        listing.apply(size);
+        statistics.clear();
+        assertThat(listing.apply(size)).isEqualTo(size);
+        return statistics.getPrepareStatementCount();
+    }
+
+}
@@ -0,0 +1,177 @@
+package ru.practicum.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.PostgresIntegrationTest;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.utils.EventState;
+import ru.practicum.event.utils.RequestStatus;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestServiceImplConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int PARTICIPANT_LIMIT = 5;
+    private static final int PARTICIPANTS = 2_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User initiator;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE requests, events, categories, users RESTART IDENTITY CASCADE");
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+        initiator = userRepository.save(User.builder().name("initiator").email("initiator@mail.ru").build());
+        category = categoryRepository.save(Category.builder().name("category").build());
+    }
+
+    @Test
+    void addPrivateEventRequestShouldNotExceedParticipantLimit() throws Exception {
+        Event event = saveEvent(false);
+        List<Long> participants = saveParticipants();
+
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (Long participant : participants) {
+            calls.add(() -> requestService.addPrivateEventRequest(participant, event.getId()) != null);
+        }
+        int confirmed = runConcurrently(calls);
+
+        assertThat(confirmed).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(confirmedRequests(event)).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(countRequests(event, RequestStatus.CONFIRMED)).isEqualTo(PARTICIPANT_LIMIT);
+    }
+
+    @Test
+    void updateEventRequestShouldNotExceedParticipantLimit() throws Exception {
+        Event event = saveEvent(true);
+        List<Long> requestIds = new ArrayList<>();
+        for (Long participant : saveParticipants()) {
+            requestIds.add(requestService.addPrivateEventRequest(participant, event.getId()).getId());
+        }
+
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < requestIds.size(); i += 2) {
+            EventRequestStatusUpdateRequest update = new EventRequestStatusUpdateRequest();
+            update.setRequestIds(requestIds.subList(i, i + 2));
+            update.setStatus(RequestStatus.CONFIRMED);
+            calls.add(() -> !requestService.updateEventRequest(initiator.getId(), event.getId(), update)
+                    .getConfirmedRequests().isEmpty());
+        }
+        runConcurrently(calls);
+
+        assertThat(confirmedRequests(event)).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(countRequests(event, RequestStatus.CONFIRMED)).isEqualTo(confirmedRequests(event));
+    }
+
+    private Event saveEvent(boolean requestModeration) {
+        return eventRepository.save(Event.builder()
+                .annotation("annotation of the concurrency test event")
+                .category(category)
+                .confirmedRequests(0L)
+                .createdOn(LocalDateTime.now())
+                .description("description of the concurrency test event")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .initiator(initiator)
+                .lat(55.75f)
+                .lon(37.62f)
+                .paid(false)
+                .participantLimit(PARTICIPANT_LIMIT)
+                .publishedOn(LocalDateTime.now())
+                .requestModeration(requestModeration)
+                .state(EventState.PUBLISHED)
+                .title("concurrency test")
+                .build());
+    }
+
+    private List<Long> saveParticipants() {
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'participant' || i, 'participant' || i || '@mail.ru' FROM generate_series(1, ?) AS i",
+                PARTICIPANTS);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id <> ? ORDER BY id", Long.class,
+                initiator.getId());
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> call : calls) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get(30, TimeUnit.SECONDS)) {
+                        succeeded++;
+                    }
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long confirmedRequests(Event event) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_request FROM events WHERE id = ?", Long.class,
+                event.getId());
+    }
+
+    private long countRequests(Event event, RequestStatus status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM requests WHERE event = ? AND status = ?",
+                Long.class, event.getId(), status.name());
+    }
+
+}
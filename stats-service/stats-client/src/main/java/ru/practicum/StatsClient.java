@@ -1,53 +1,306 @@
 package ru.practicum;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.client.HitBuffer;
+import ru.practicum.client.HitFlusher;
+import ru.practicum.client.LastKnownStats;
+import ru.practicum.client.StatsClientConnectionProperties;
+import ru.practicum.client.StatsClientProperties;
+import ru.practicum.client.StatsClientResilienceProperties;
+import ru.practicum.dto.HitBatchResultDto;
 import ru.practicum.dto.HitDto;
 import ru.practicum.dto.StatDto;
+import ru.practicum.dto.StatSeriesDto;
 
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 public class StatsClient {
 
+    private static final String STATS_SERVER = "stats-server";
+
     private final WebClient client;
+    private final HitFlusher hitFlusher;
+    private final Duration callTimeout;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final LastKnownStats lastKnownStats;
+    private final AtomicLong fallbackCalls = new AtomicLong();
 
-    public StatsClient(@Value("${stats-server.url}") String serverUrl) {
-        this.client = WebClient.create(serverUrl);
+    public StatsClient(@Value("${stats-server.url}") String serverUrl,
+                       StatsClientProperties properties,
+                       StatsClientResilienceProperties resilience,
+                       StatsClientConnectionProperties connection,
+                       ObjectProvider<WebClient.Builder> webClientBuilder,
+                       ObjectProvider<MeterRegistry> meterRegistry) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(STATS_SERVER)
+                .maxConnections(connection.getMaxConnections())
+                .pendingAcquireMaxCount(connection.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(connection.getPendingAcquireTimeout())
+                .maxIdleTime(connection.getMaxIdleTime())
+                .maxLifeTime(connection.getMaxLifeTime())
+                .evictInBackground(connection.getEvictInBackground())
+                .metrics(connection.isMetrics())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) resilience.getConnectTimeout().toMillis())
+                .responseTimeout(resilience.getResponseTimeout())
+                .keepAlive(connection.isKeepAlive())
+                .protocol(connection.isH2c()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .metrics(connection.isMetrics(), StatsClient::toUriTag);
+        this.client = webClientBuilder.getIfAvailable(WebClient::builder)
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.callTimeout = resilience.getCallTimeout();
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                .slowCallDurationThreshold(resilience.getSlowCallDuration())
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .slidingWindowSize(resilience.getSlidingWindowSize())
+                .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(resilience.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(resilience.getPermittedCallsInHalfOpenState())
+                .ignoreException(StatsClient::isClientError)
+                .build());
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(resilience.getMaxWaitDuration())
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(STATS_SERVER);
+        this.bulkhead = bulkheadRegistry.bulkhead(STATS_SERVER);
+        this.lastKnownStats = new LastKnownStats(resilience.getFallbackCacheSize());
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Состояние соединения с сервисом статистики: {}", event.getStateTransition()));
+        meterRegistry.ifAvailable(this::bindResilienceMetrics);
+        log.info("Пул соединений с сервисом статистики: maxConnections {}, pendingAcquireMaxCount {}, h2c {}",
+                connection.getMaxConnections(), connection.getPendingAcquireMaxCount(), connection.isH2c());
+        if (properties.isAsync()) {
+            HitBuffer hitBuffer = new HitBuffer(properties.getCapacity(), properties.getOverflow(),
+                    properties.getBlockTimeout(), Path.of(properties.getSpillFile()), new ObjectMapper());
+            this.hitFlusher = new HitFlusher(hitBuffer, this::sendHits, properties.getBatchSize(),
+                    properties.getFlushInterval());
+            meterRegistry.ifAvailable(registry -> bindMetrics(hitBuffer, registry));
+            log.info("Включена асинхронная отправка просмотров: capacity {}, batchSize {}, overflow {}",
+                    properties.getCapacity(), properties.getBatchSize(), properties.getOverflow());
+        } else {
+            this.hitFlusher = null;
+        }
     }
 
     public void saveStats(HitDto hitDto) {
-        this.client.post()
-                .uri("/hit")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(hitDto)
+        if (hitFlusher != null) {
+            hitFlusher.add(hitDto);
+            return;
+        }
+        try {
+            protect(this.client.post()
+                    .uri("/hit")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(hitDto)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .toBodilessEntity())
+                    .doOnNext(voidResponseEntity -> log.info("Информация сохранена"))
+                    .block();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить просмотр {}: {}", hitDto.getUri(), e.getMessage());
+        }
+    }
+
+    public ResponseEntity<List<StatDto>> getStats(String start, String end, List<String> uris, Boolean unique) {
+        return getStats(start, end, uris, unique, null, null);
+    }
+
+    public ResponseEntity<List<StatDto>> getStats(String start, String end, List<String> uris, Boolean unique,
+                                                  Integer limit, Integer offset) {
+        ResponseEntity<List<StatDto>> response;
+        try {
+            response = protect(this.client.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/stats")
+                            .queryParam("start", start)
+                            .queryParam("end", end)
+                            .queryParam("uris", uris)
+                            .queryParam("unique", unique)
+                            .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                            .queryParamIfPresent("offset", Optional.ofNullable(offset))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .toEntityList(StatDto.class))
+                    .doOnNext(listResponseEntity -> log.info(
+                            "Запрос на получение статистики: start {}, end {}", start, end))
+                    .block();
+        } catch (RuntimeException e) {
+            if (uris == null || uris.isEmpty() || !isUnavailable(Exceptions.unwrap(e))) {
+                throw e;
+            }
+            fallbackCalls.incrementAndGet();
+            log.warn("Сервис статистики недоступен, используются последние известные значения: {}", e.getMessage());
+            return ResponseEntity.ok(lastKnownStats.getAll(unique, uris));
+        }
+        if (response != null && response.getBody() != null) {
+            lastKnownStats.putAll(unique, response.getBody());
+        }
+        return response;
+    }
+
+    public ResponseEntity<List<StatSeriesDto>> getStatsSeries(String start, String end, List<String> uris,
+                                                              String interval, Boolean unique) {
+        return protect(this.client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/stats/series")
+                        .queryParam("start", start)
+                        .queryParam("end", end)
+                        .queryParam("uris", uris)
+                        .queryParam("interval", interval)
+                        .queryParam("unique", unique)
+                        .build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .toBodilessEntity()
-                .doOnNext(voidResponseEntity -> log.info("Информация сохранена"))
+                .toEntityList(StatSeriesDto.class))
+                .doOnNext(listResponseEntity -> log.info(
+                        "Запрос на получение временного ряда статистики: start {}, end {}, interval {}",
+                        start, end, interval))
                 .block();
     }
 
-    public ResponseEntity<List<StatDto>> getStats(String start, String end, List<String> uris, Boolean unique) {
+    public Flux<StatDto> getStatsStream(String start, String end, List<String> uris, Boolean unique) {
+        log.info("Запрос на потоковое получение статистики: start {}, end {}", start, end);
         return this.client.get()
                 .uri(uriBuilder -> uriBuilder
-                        .path("/stats")
+                        .path("/stats/stream")
                         .queryParam("start", start)
                         .queryParam("end", end)
                         .queryParam("uris", uris)
                         .queryParam("unique", unique)
                         .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(StatDto.class)
+                .transform(this::protect);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public int getFallbackSize() {
+        return lastKnownStats.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (hitFlusher != null) {
+            hitFlusher.shutdown();
+        }
+    }
+
+    private <T> Mono<T> protect(Mono<T> call) {
+        return call.timeout(callTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private <T> Flux<T> protect(Flux<T> call) {
+        return call.timeout(callTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private void sendHits(List<HitDto> hits) {
+        protect(this.client.post()
+                .uri("/hits/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(hits)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .toEntityList(StatDto.class)
-                .doOnNext(listResponseEntity -> log.info(
-                        "Запрос на получение статистики: start {}, end {}", start, end))
+                .bodyToMono(HitBatchResultDto.class))
+                .doOnNext(result -> log.info("Отправлено просмотров: принято {}, отклонено {}",
+                        result.getAccepted(), result.getRejected()))
                 .block();
     }
 
+    private static boolean isClientError(Throwable e) {
+        return e instanceof WebClientResponseException
+                && ((WebClientResponseException) e).getStatusCode().is4xxClientError();
+    }
+
+    private static boolean isUnavailable(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException
+                || e instanceof TimeoutException
+                || e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException;
+    }
+
+    private static String toUriTag(String uri) {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
+    }
+
+    private void bindMetrics(HitBuffer hitBuffer, MeterRegistry registry) {
+        FunctionCounter.builder("stats.client.hits.queued", hitBuffer, HitBuffer::getQueued).register(registry);
+        FunctionCounter.builder("stats.client.hits.flushed", hitBuffer, HitBuffer::getFlushed).register(registry);
+        FunctionCounter.builder("stats.client.hits.dropped", hitBuffer, HitBuffer::getDropped).register(registry);
+        FunctionCounter.builder("stats.client.hits.spilled", hitBuffer, HitBuffer::getSpilled).register(registry);
+        Gauge.builder("stats.client.hits.buffered", hitBuffer, HitBuffer::size).register(registry);
+    }
+
+    private void bindResilienceMetrics(MeterRegistry registry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+        FunctionCounter.builder("stats.client.fallback.calls", fallbackCalls, AtomicLong::get).register(registry);
+    }
+
 }
@@ -0,0 +1,238 @@
+package ru.practicum.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.HitDto;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class HitBuffer {
+
+    private final HitDto[] ring;
+    private final OverflowPolicy overflow;
+    private final long blockTimeoutNanos;
+    private final Path spillFile;
+    private final ObjectMapper objectMapper;
+
+    private final Object spillLock = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private int head;
+    private int size;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    public HitBuffer(int capacity, OverflowPolicy overflow, Duration blockTimeout, Path spillFile,
+                     ObjectMapper objectMapper) {
+        this.ring = new HitDto[capacity];
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.spillFile = spillFile;
+        this.objectMapper = objectMapper;
+    }
+
+    public void offer(HitDto hitDto) {
+        lock.lock();
+        try {
+            if (size < ring.length || makeRoom()) {
+                ring[(head + size) % ring.length] = hitDto;
+                size++;
+                queued.incrementAndGet();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (overflow == OverflowPolicy.SPILL_TO_DISK) {
+            spill(List.of(hitDto));
+        }
+    }
+
+    public List<HitDto> drain(int max) {
+        lock.lock();
+        try {
+            int count = Math.min(max, size);
+            List<HitDto> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(ring[head]);
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+            }
+            size -= count;
+            if (count > 0) {
+                notFull.signalAll();
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void markFlushed(int count) {
+        flushed.addAndGet(count);
+    }
+
+    public void markFailed(List<HitDto> batch) {
+        if (overflow == OverflowPolicy.SPILL_TO_DISK) {
+            spill(batch);
+        } else {
+            dropped.addAndGet(batch.size());
+        }
+    }
+
+    public int restoreSpilled() {
+        if (spillFile == null || !Files.exists(spillFile)) {
+            return 0;
+        }
+        synchronized (spillLock) {
+            Path replay = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+            int restored = 0;
+            try {
+                Files.move(spillFile, replay, StandardCopyOption.REPLACE_EXISTING);
+                BufferedWriter rest = null;
+                try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        if (rest == null && offerRestored(parseSpilled(line))) {
+                            restored++;
+                            continue;
+                        }
+                        if (rest == null) {
+                            rest = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        }
+                        rest.write(line);
+                        rest.newLine();
+                    }
+                } finally {
+                    if (rest != null) {
+                        rest.close();
+                    }
+                }
+                Files.delete(replay);
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать сохраненные на диск просмотры: {}", e.getMessage());
+            }
+            return restored;
+        }
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    private HitDto parseSpilled(String line) {
+        try {
+            return objectMapper.readValue(line, HitDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Пропущена некорректная строка в файле просмотров: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private boolean offerRestored(HitDto hitDto) {
+        if (hitDto == null) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (size == ring.length) {
+                return false;
+            }
+            ring[(head + size) % ring.length] = hitDto;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean makeRoom() {
+        switch (overflow) {
+            case BLOCK:
+                long nanos = blockTimeoutNanos;
+                try {
+                    while (size == ring.length) {
+                        if (nanos <= 0) {
+                            dropped.incrementAndGet();
+                            return false;
+                        }
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                return true;
+            case SPILL_TO_DISK:
+                return false;
+            case DROP_OLDEST:
+            default:
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+                size--;
+                dropped.incrementAndGet();
+                return true;
+        }
+    }
+
+    private void spill(List<HitDto> hits) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (HitDto hit : hits) {
+                    writer.write(objectMapper.writeValueAsString(hit));
+                    writer.newLine();
+                }
+                spilled.addAndGet(hits.size());
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить просмотры на диск: {}", e.getMessage());
+                dropped.addAndGet(hits.size());
+            }
+        }
+    }
+
+}
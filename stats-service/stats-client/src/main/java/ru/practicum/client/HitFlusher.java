@@ -0,0 +1,89 @@
+package ru.practicum.client;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.HitDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HitFlusher {
+
+    private final HitBuffer buffer;
+    private final Consumer<List<HitDto>> sender;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    public HitFlusher(HitBuffer buffer, Consumer<List<HitDto>> sender, int batchSize, Duration flushInterval) {
+        this.buffer = buffer;
+        this.sender = sender;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void add(HitDto hitDto) {
+        buffer.offer(hitDto);
+        if (buffer.size() >= batchSize && !flushing.get() && !executor.isShutdown()) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                log.debug("Отправка просмотров уже остановлена, просмотр останется в буфере");
+            }
+        }
+    }
+
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            do {
+                List<HitDto> batch = buffer.drain(batchSize);
+                while (!batch.isEmpty()) {
+                    if (!send(batch)) {
+                        return;
+                    }
+                    batch = buffer.drain(batchSize);
+                }
+            } while (buffer.restoreSpilled() > 0);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private boolean send(List<HitDto> batch) {
+        try {
+            sender.accept(batch);
+            buffer.markFlushed(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить {} просмотров на сервер статистики: {}", batch.size(), e.getMessage());
+            buffer.markFailed(batch);
+            return false;
+        }
+    }
+
+}
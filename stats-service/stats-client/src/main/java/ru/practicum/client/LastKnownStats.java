@@ -0,0 +1,48 @@
+package ru.practicum.client;
+
+import ru.practicum.dto.StatDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LastKnownStats {
+
+    private final Map<String, StatDto> stats;
+
+    public LastKnownStats(int maximumSize) {
+        this.stats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StatDto> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public synchronized void putAll(Boolean unique, List<StatDto> statDtos) {
+        for (StatDto statDto : statDtos) {
+            stats.put(key(unique, statDto.getUri()), statDto);
+        }
+    }
+
+    public synchronized List<StatDto> getAll(Boolean unique, List<String> uris) {
+        List<StatDto> result = new ArrayList<>();
+        for (String uri : uris) {
+            StatDto statDto = stats.get(key(unique, uri));
+            if (statDto != null) {
+                result.add(statDto);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return stats.size();
+    }
+
+    private static String key(Boolean unique, String uri) {
+        return Boolean.TRUE.equals(unique) + ":" + uri;
+    }
+
+}
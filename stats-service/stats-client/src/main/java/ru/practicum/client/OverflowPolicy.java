@@ -0,0 +1,5 @@
+package ru.practicum.client;
+
+public enum OverflowPolicy {
+    DROP_OLDEST, BLOCK, SPILL_TO_DISK
+}
@@ -0,0 +1,31 @@
+package ru.practicum.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "stats-server.hits")
+public class StatsClientProperties {
+
+    private boolean async = false;
+
+    private int capacity = 10_000;
+
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private OverflowPolicy overflow = OverflowPolicy.DROP_OLDEST;
+
+    private Duration blockTimeout = Duration.ofMillis(50);
+
+    private String spillFile = Path.of(System.getProperty("java.io.tmpdir"), "stats-hits-spill.ndjson").toString();
+
+}
@@ -0,0 +1,42 @@
+package ru.practicum.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "stats-server.client")
+public class StatsClientResilienceProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration responseTimeout = Duration.ofSeconds(2);
+
+    private Duration callTimeout = Duration.ofSeconds(3);
+
+    private float failureRateThreshold = 50;
+
+    private Duration slowCallDuration = Duration.ofSeconds(1);
+
+    private float slowCallRateThreshold = 80;
+
+    private int slidingWindowSize = 20;
+
+    private int minimumNumberOfCalls = 10;
+
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+    private int permittedCallsInHalfOpenState = 3;
+
+    private int maxConcurrentCalls = 20;
+
+    private Duration maxWaitDuration = Duration.ZERO;
+
+    private int fallbackCacheSize = 10_000;
+
+}
@@ -0,0 +1,34 @@
+package ru.practicum.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatsClient;
+
+@Component
+@RequiredArgsConstructor
+public class StatsServerHealthIndicator implements HealthIndicator {
+
+    private final StatsClient statsClient;
+
+    @Override
+    public Health health() {
+        CircuitBreaker circuitBreaker = statsClient.getCircuitBreaker();
+        Bulkhead bulkhead = statsClient.getBulkhead();
+        Health.Builder builder = circuitBreaker.getState() == CircuitBreaker.State.CLOSED
+                ? Health.up()
+                : Health.unknown();
+        return builder
+                .withDetail("circuitBreaker", circuitBreaker.getState())
+                .withDetail("failureRate", circuitBreaker.getMetrics().getFailureRate())
+                .withDetail("slowCallRate", circuitBreaker.getMetrics().getSlowCallRate())
+                .withDetail("notPermittedCalls", circuitBreaker.getMetrics().getNumberOfNotPermittedCalls())
+                .withDetail("availableConcurrentCalls", bulkhead.getMetrics().getAvailableConcurrentCalls())
+                .withDetail("fallbackEntries", statsClient.getFallbackSize())
+                .build();
+    }
+
+}
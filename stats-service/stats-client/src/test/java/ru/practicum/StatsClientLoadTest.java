@@ -0,0 +1,117 @@
+package ru.practicum;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.client.StatsClientConnectionProperties;
+import ru.practicum.client.StatsClientProperties;
+import ru.practicum.client.StatsClientResilienceProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class StatsClientLoadTest {
+
+    private static final String START = "2023-01-01 00:00:00";
+    private static final String END = "2023-12-31 00:00:00";
+    private static final String STATS = "[{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"hits\":5}]";
+    private static final Duration SERVER_LATENCY = Duration.ofMillis(10);
+    private static final int CONCURRENCY = 16;
+    private static final int REQUESTS = 400;
+    private static final int WARM_UP_REQUESTS = 50;
+
+    private DisposableServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/stats", (request, response) -> Mono.delay(SERVER_LATENCY)
+                        .then(response.header("Content-Type", "application/json")
+                                .sendString(Mono.just(STATS))
+                                .then())))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void tunedPoolShouldLowerLatencyPercentilesUnderConcurrentLoad() throws Exception {
+        StatsClientConnectionProperties constrained = new StatsClientConnectionProperties();
+        constrained.setMaxConnections(1);
+        constrained.setPendingAcquireTimeout(Duration.ofSeconds(10));
+
+        long[] before = measure(constrained);
+        long[] after = measure(new StatsClientConnectionProperties());
+
+        log.info("Задержка /stats, maxConnections 1: p50 {} мс, p95 {} мс, p99 {} мс",
+                percentile(before, 50), percentile(before, 95), percentile(before, 99));
+        log.info("Задержка /stats, настройки пула по умолчанию: p50 {} мс, p95 {} мс, p99 {} мс",
+                percentile(after, 50), percentile(after, 95), percentile(after, 99));
+        assertThat(percentile(after, 95)).isLessThan(percentile(before, 95));
+    }
+
+    private long[] measure(StatsClientConnectionProperties connection) throws Exception {
+        StatsClientResilienceProperties resilience = new StatsClientResilienceProperties();
+        resilience.setResponseTimeout(Duration.ofSeconds(10));
+        resilience.setCallTimeout(Duration.ofSeconds(10));
+        resilience.setSlowCallDuration(Duration.ofSeconds(10));
+        resilience.setMaxConcurrentCalls(CONCURRENCY);
+        StatsClient statsClient = new StatsClient("http://localhost:" + server.port(),
+                new StatsClientProperties(),
+                resilience,
+                connection,
+                new DefaultListableBeanFactory().getBeanProvider(WebClient.Builder.class),
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            run(statsClient, executor, WARM_UP_REQUESTS);
+            return run(statsClient, executor, REQUESTS);
+        } finally {
+            executor.shutdownNow();
+            statsClient.shutdown();
+        }
+    }
+
+    private long[] run(StatsClient statsClient, ExecutorService executor, int requests) throws Exception {
+        List<Future<Long>> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            calls.add(executor.submit(() -> {
+                long startTime = System.nanoTime();
+                statsClient.getStats(START, END, null, false);
+                return (System.nanoTime() - startTime) / 1_000_000;
+            }));
+        }
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            latencies[i] = calls.get(i).get(30, TimeUnit.SECONDS);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+}
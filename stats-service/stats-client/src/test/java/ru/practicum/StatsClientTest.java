@@ -0,0 +1,234 @@
+package ru.practicum;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.util.function.Tuple2;
+import ru.practicum.client.StatsClientConnectionProperties;
+import ru.practicum.client.StatsClientProperties;
+import ru.practicum.client.StatsClientResilienceProperties;
+import ru.practicum.client.StatsServerHealthIndicator;
+import ru.practicum.dto.StatDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatsClientTest {
+
+    private static final String START = "2023-01-01 00:00:00";
+    private static final String END = "2023-12-31 00:00:00";
+    private static final List<String> URIS = List.of("/events/1");
+    private static final String STATS = "[{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"hits\":5}]";
+
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Duration delay = Duration.ZERO;
+    private volatile boolean keepAlive = true;
+
+    private DisposableServer server;
+    private StatsClient statsClient;
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void warmUp() {
+        DisposableServer warmUpServer = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.just(STATS)))
+                .bindNow();
+        try {
+            WebClient.create("http://localhost:" + warmUpServer.port()).get()
+                    .retrieve()
+                    .toEntityList(StatDto.class)
+                    .block();
+        } finally {
+            warmUpServer.disposeNow();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/stats", (request, response) -> {
+                            requests.incrementAndGet();
+                            return Mono.delay(delay)
+                                    .then(response.keepAlive(keepAlive)
+                                            .status(status.get())
+                                            .header("Content-Type", "application/json")
+                                            .sendString(Mono.just(status.get() == 200 ? STATS : "{}"))
+                                            .then());
+                        })
+                        .get("/stats/stream", (request, response) -> response
+                                .header("Content-Type", "application/x-ndjson")
+                                .sendString(Flux.just(
+                                                "{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"hits\":5}\n",
+                                                "{\"app\":\"ewm-main-service\",\"uri\":\"/events/2\",\"hits\":3}\n")
+                                        .delayElements(delay))))
+                .bindNow();
+
+        StatsClientResilienceProperties resilience = new StatsClientResilienceProperties();
+        resilience.setResponseTimeout(Duration.ofSeconds(5));
+        resilience.setCallTimeout(Duration.ofSeconds(1));
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumNumberOfCalls(4);
+        resilience.setWaitDurationInOpenState(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        statsClient = new StatsClient("http://localhost:" + server.port(),
+                new StatsClientProperties(),
+                resilience,
+                new StatsClientConnectionProperties(),
+                new DefaultListableBeanFactory().getBeanProvider(WebClient.Builder.class),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsClient.shutdown();
+        server.disposeNow();
+    }
+
+    @Test
+    void getStatsShouldFallBackToLastKnownStatsOnServerError() {
+        statsClient.getStats(START, END, URIS, false);
+        status.set(503);
+
+        ResponseEntity<List<StatDto>> response = statsClient.getStats(START, END, URIS, false);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(StatDto::getHits).containsExactly(5L);
+    }
+
+    @Test
+    void getStatsShouldFallBackWhenServerIsDown() {
+        keepAlive = false;
+        statsClient.getStats(START, END, URIS, false);
+        server.disposeNow();
+
+        ResponseEntity<List<StatDto>> response = statsClient.getStats(START, END, URIS, false);
+
+        assertThat(response.getBody()).extracting(StatDto::getHits).containsExactly(5L);
+        assertThat(meterRegistry.get("stats.client.fallback.calls").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getStatsShouldNotFallBackWithoutUris() {
+        status.set(503);
+
+        assertThatThrownBy(() -> statsClient.getStats(START, END, null, false))
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        assertThat(meterRegistry.get("stats.client.fallback.calls").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void getStatsShouldFallBackOnTimeout() {
+        statsClient.getStats(START, END, URIS, false);
+        delay = Duration.ofSeconds(2);
+
+        ResponseEntity<List<StatDto>> response = statsClient.getStats(START, END, URIS, false);
+
+        assertThat(response.getBody()).extracting(StatDto::getHits).containsExactly(5L);
+    }
+
+    @Test
+    void getStatsShouldRethrowClientError() {
+        statsClient.getStats(START, END, URIS, false);
+        status.set(400);
+
+        assertThatThrownBy(() -> statsClient.getStats(START, END, URIS, false))
+                .isInstanceOf(WebClientResponseException.BadRequest.class);
+        assertThat(statsClient.getCircuitBreaker().getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void circuitBreakerShouldOpenAfterServerErrorsAndStopCallingServer() {
+        statsClient.getStats(START, END, URIS, false);
+        status.set(500);
+        for (int i = 0; i < 3; i++) {
+            statsClient.getStats(START, END, URIS, false);
+        }
+        assertThat(statsClient.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        int served = requests.get();
+
+        ResponseEntity<List<StatDto>> response = statsClient.getStats(START, END, URIS, false);
+
+        assertThat(requests.get()).isEqualTo(served);
+        assertThat(response.getBody()).extracting(StatDto::getHits).containsExactly(5L);
+    }
+
+    @Test
+    void healthShouldReportUnknownWhileCircuitBreakerIsOpen() {
+        StatsServerHealthIndicator healthIndicator = new StatsServerHealthIndicator(statsClient);
+        statsClient.getStats(START, END, URIS, false);
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+
+        status.set(500);
+        for (int i = 0; i < 3; i++) {
+            statsClient.getStats(START, END, URIS, false);
+        }
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(health.getDetails())
+                .containsEntry("circuitBreaker", CircuitBreaker.State.OPEN)
+                .containsEntry("fallbackEntries", 1);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "stats-server").tag("state", "open").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void getStatsStreamShouldTimeOutWhenServerStalls() {
+        delay = Duration.ofSeconds(2);
+
+        assertThatThrownBy(() -> statsClient.getStatsStream(START, END, URIS, false).collectList().block())
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(statsClient.getCircuitBreaker().getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+        assertThat(statsClient.getBulkhead().getMetrics().getAvailableConcurrentCalls())
+                .isEqualTo(statsClient.getBulkhead().getBulkheadConfig().getMaxConcurrentCalls());
+    }
+
+    @Test
+    void getStatsStreamShouldReturnAllElements() {
+        List<StatDto> stats = statsClient.getStatsStream(START, END, URIS, false).collectList().block();
+
+        assertThat(stats).extracting(StatDto::getUri).containsExactly("/events/1", "/events/2");
+    }
+
+    @Test
+    void getStatsStreamShouldEmitElementsAsTheyArrive() {
+        delay = Duration.ofMillis(300);
+
+        List<Long> elapsed = statsClient.getStatsStream(START, END, URIS, false)
+                .elapsed()
+                .map(Tuple2::getT1)
+                .collectList()
+                .block();
+
+        assertThat(elapsed).hasSize(2);
+        assertThat(elapsed.get(1)).isGreaterThanOrEqualTo(200L);
+    }
+
+}
@@ -0,0 +1,84 @@
+package ru.practicum.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.dto.HitDto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitBufferTest {
+
+    private static final int CAPACITY = 16;
+    private static final int PRODUCERS = 4;
+    private static final int HITS_PER_PRODUCER = 1_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void offerShouldNotDeadlockWithConcurrentRestore() throws Exception {
+        HitBuffer buffer = new HitBuffer(CAPACITY, OverflowPolicy.SPILL_TO_DISK, Duration.ZERO,
+                tempDir.resolve("spill.ndjson"), new ObjectMapper());
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicLong drained = new AtomicLong();
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < HITS_PER_PRODUCER; i++) {
+                        buffer.offer(hit(producer, i));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                do {
+                    drained.addAndGet(buffer.drain(CAPACITY / 2).size());
+                    buffer.restoreSpilled();
+                } while (producing.get() || buffer.size() > 0);
+                return null;
+            });
+            start.countDown();
+
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+            producing.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        do {
+            drained.addAndGet(buffer.drain(CAPACITY).size());
+        } while (buffer.restoreSpilled() > 0 || buffer.size() > 0);
+
+        assertThat(buffer.getSpilled()).isPositive();
+        assertThat(buffer.getDropped()).isZero();
+        assertThat(drained.get()).isEqualTo((long) PRODUCERS * HITS_PER_PRODUCER);
+    }
+
+    private static HitDto hit(int producer, int i) {
+        return new HitDto("ewm-main-service", "/events/" + producer, "10.0.0." + producer,
+                "2023-01-01 00:00:" + String.format("%02d", i % 60));
+    }
+
+}
@@ -0,0 +1,17 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HitBatchResultDto {
+    private Integer accepted;
+    private Integer rejected;
+    private Long hitsPerSecond;
+    private Boolean complete;
+}
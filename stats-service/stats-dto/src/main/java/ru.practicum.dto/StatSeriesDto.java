@@ -0,0 +1,17 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatSeriesDto {
+    private String app;
+    private String uri;
+    private String bucket;
+    private Long hits;
+}
@@ -4,13 +4,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.dto.HitBatchResultDto;
 import ru.practicum.dto.HitDto;
 import ru.practicum.dto.StatDto;
+import ru.practicum.dto.StatSeriesDto;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.UniqueMode;
 import ru.practicum.server.service.StatService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,14 +35,54 @@ public class StatsController {
         return new ResponseEntity<>("Информация сохранена", HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/hits/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResultDto saveStatsBatch(@RequestBody List<HitDto> hits) {
+        log.info("Запрос на сохранение {} просмотров", hits.size());
+        return statService.saveStatsBatch(hits);
+    }
+
+    @PostMapping(value = "/hits/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResultDto saveStatsStream(HttpServletRequest request) throws IOException {
+        log.info("Запрос на потоковое сохранение просмотров");
+        return statService.saveStatsStream(request.getInputStream());
+    }
+
 
     @GetMapping("/stats")
     public List<StatDto> getStats(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
             @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "false") String unique,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") Integer offset) {
+        log.info("Запрос на получение статистики: start {}, end {}, limit {}, offset {}", start, end, limit, offset);
+        return statService.getStats(start, end, uris, UniqueMode.from(unique), limit, offset);
+    }
+
+    @GetMapping("/stats/series")
+    public List<StatSeriesDto> getStatsSeries(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "hour") String interval,
             @RequestParam(defaultValue = "false") Boolean unique) {
-        log.info("Запрос на получение статистики: start {}, end {}", start, end);
-        return statService.getStats(start, end, uris, unique);
+        log.info("Запрос на получение временного ряда статистики: start {}, end {}, interval {}",
+                start, end, interval);
+        return statService.getStatsSeries(start, end, uris, RollupGranularity.from(interval), unique);
+    }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "false") String unique,
+            HttpServletResponse response) throws IOException {
+        log.info("Запрос на потоковое получение статистики: start {}, end {}", start, end);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        statService.streamStats(start, end, uris, UniqueMode.from(unique), response.getOutputStream());
     }
 }
@@ -2,7 +2,11 @@ package ru.practicum.server.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.dto.StatDto;
+import ru.practicum.dto.StatSeriesDto;
 import ru.practicum.server.model.Stat;
+import ru.practicum.server.model.StatPoint;
+
+import java.time.format.DateTimeFormatter;
 
 @UtilityClass
 public class StatsMapper {
@@ -13,4 +17,13 @@ public class StatsMapper {
                 .hits(stat.getHits())
                 .build();
     }
+
+    public static StatSeriesDto toStatSeriesDto(StatPoint point) {
+        return StatSeriesDto.builder()
+                .app(point.getApp())
+                .uri(point.getUri())
+                .bucket(point.getBucket().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .hits(point.getHits())
+                .build();
+    }
 }
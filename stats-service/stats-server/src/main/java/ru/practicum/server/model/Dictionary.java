@@ -0,0 +1,15 @@
+package ru.practicum.server.model;
+
+public enum Dictionary {
+    APP("apps"), URI("uris");
+
+    private final String table;
+
+    Dictionary(String table) {
+        this.table = table;
+    }
+
+    public String getTable() {
+        return table;
+    }
+}
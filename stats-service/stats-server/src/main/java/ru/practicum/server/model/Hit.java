@@ -17,8 +17,14 @@ public class Hit {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    private Integer appId;
+
+    private Integer uriId;
+
+    @Transient
     private String app;
 
+    @Transient
     private String uri;
 
     private String ip;
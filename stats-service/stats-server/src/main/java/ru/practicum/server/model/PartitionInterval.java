@@ -0,0 +1,45 @@
+package ru.practicum.server.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum PartitionInterval {
+    DAY(ChronoUnit.DAYS, "yyyyMMdd"), MONTH(ChronoUnit.MONTHS, "yyyyMM");
+
+    private final ChronoUnit unit;
+    private final DateTimeFormatter formatter;
+
+    PartitionInterval(ChronoUnit unit, String pattern) {
+        this.unit = unit;
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
+    }
+
+    public LocalDate floor(LocalDate date) {
+        return this == MONTH ? date.with(TemporalAdjusters.firstDayOfMonth()) : date;
+    }
+
+    public LocalDate next(LocalDate start) {
+        return start.plus(1, unit);
+    }
+
+    public LocalDate plus(LocalDate start, int count) {
+        return start.plus(count, unit);
+    }
+
+    public LocalDate minus(LocalDate start, int count) {
+        return start.minus(count, unit);
+    }
+
+    public String suffix(LocalDate start) {
+        return start.format(formatter);
+    }
+
+    public LocalDate parse(String suffix) {
+        if (!suffix.matches(this == MONTH ? "\\d{6}" : "\\d{8}")) {
+            return null;
+        }
+        return LocalDate.parse(this == MONTH ? suffix + "01" : suffix, DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
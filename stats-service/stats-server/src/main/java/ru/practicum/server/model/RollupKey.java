@@ -0,0 +1,28 @@
+package ru.practicum.server.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class RollupKey implements Comparable<RollupKey> {
+    RollupGranularity granularity;
+    LocalDateTime bucketStart;
+    Integer appId;
+    Integer uriId;
+
+    @Override
+    public int compareTo(RollupKey other) {
+        int result = granularity.compareTo(other.granularity);
+        if (result == 0) {
+            result = bucketStart.compareTo(other.bucketStart);
+        }
+        if (result == 0) {
+            result = appId.compareTo(other.appId);
+        }
+        if (result == 0) {
+            result = uriId.compareTo(other.uriId);
+        }
+        return result;
+    }
+}
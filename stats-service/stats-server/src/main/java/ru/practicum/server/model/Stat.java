@@ -10,7 +10,15 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Stat {
+    private Integer appId;
+    private Integer uriId;
     private String app;
     private String uri;
     private Long hits;
+
+    public Stat(Integer appId, Integer uriId, Long hits) {
+        this.appId = appId;
+        this.uriId = uriId;
+        this.hits = hits;
+    }
 }
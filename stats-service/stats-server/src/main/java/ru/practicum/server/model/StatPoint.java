@@ -0,0 +1,19 @@
+package ru.practicum.server.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class StatPoint extends Stat {
+    private LocalDateTime bucket;
+
+    public StatPoint(Integer appId, Integer uriId, LocalDateTime bucket, Long hits) {
+        super(appId, uriId, hits);
+        this.bucket = bucket;
+    }
+}
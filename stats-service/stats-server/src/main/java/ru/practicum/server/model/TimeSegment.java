@@ -0,0 +1,14 @@
+package ru.practicum.server.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TimeSegment {
+    private RollupGranularity granularity;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
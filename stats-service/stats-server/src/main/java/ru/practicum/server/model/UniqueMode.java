@@ -0,0 +1,16 @@
+package ru.practicum.server.model;
+
+import ru.practicum.server.exception.BadRequestException;
+
+public enum UniqueMode {
+    FALSE, TRUE, APPROX;
+
+    public static UniqueMode from(String value) {
+        for (UniqueMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("Параметр unique должен быть true, false или approx: " + value);
+    }
+}
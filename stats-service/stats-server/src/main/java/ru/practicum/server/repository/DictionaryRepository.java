@@ -0,0 +1,47 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.model.Dictionary;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class DictionaryRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(Dictionary dictionary, Collection<String> names) {
+        MapSqlParameterSource[] params = names.stream()
+                .map(name -> new MapSqlParameterSource("name", name))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO " + dictionary.getTable() + " (name) VALUES (:name) " +
+                "ON CONFLICT (name) DO NOTHING", params);
+    }
+
+    public Map<String, Integer> findIds(Dictionary dictionary, Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + dictionary.getTable() + " WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> {
+                    ids.put(rs.getString("name"), rs.getInt("id"));
+                });
+        return ids;
+    }
+
+    public Map<Integer, String> findNames(Dictionary dictionary, Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + dictionary.getTable() + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    names.put(rs.getInt("id"), rs.getString("name"));
+                });
+        return names;
+    }
+
+}
@@ -0,0 +1,52 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+
+    public static final String PARTITION_PREFIX = "hits_p";
+    private static final String DEFAULT_PARTITION = "hits_default";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<String> findPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'hits' AND c.relname LIKE '" + PARTITION_PREFIX + "%'", String.class);
+    }
+
+    public LocalDateTime findDefaultMinTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + DEFAULT_PARTITION, LocalDateTime.class);
+    }
+
+    public int createPartition(String name, LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " (LIKE hits INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE timestamp >= ? AND timestamp < ? RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved",
+                from.atStartOfDay(), to.atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE hits ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return moved;
+    }
+
+    public void detachPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE hits DETACH PARTITION " + name);
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE hits DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+}
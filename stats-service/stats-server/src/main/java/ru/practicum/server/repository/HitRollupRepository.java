@@ -0,0 +1,119 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.RollupKey;
+import ru.practicum.server.model.Stat;
+import ru.practicum.server.model.TimeSegment;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO hit_rollups (granularity, bucket_start, app_id, uri_id, hits) " +
+            "VALUES (:granularity, :bucketStart, :appId, :uriId, :hits) " +
+            "ON CONFLICT (granularity, bucket_start, app_id, uri_id) " +
+            "DO UPDATE SET hits = hit_rollups.hits + EXCLUDED.hits";
+
+    private static final String INSERT_PENDING = "INSERT INTO hit_rollup_pending (app_id, uri_id, timestamp) " +
+            "VALUES (:appId, :uriId, :timestamp)";
+
+    private static final String COMPACT_PENDING = "WITH moved AS (DELETE FROM hit_rollup_pending " +
+            "RETURNING app_id, uri_id, timestamp), " +
+            "upserted AS (INSERT INTO hit_rollups (granularity, bucket_start, app_id, uri_id, hits) " +
+            "SELECT g.granularity, date_trunc(g.unit, m.timestamp), m.app_id, m.uri_id, count(*) " +
+            "FROM moved m CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) " +
+            "AS g (granularity, unit) " +
+            "GROUP BY g.granularity, date_trunc(g.unit, m.timestamp), m.app_id, m.uri_id " +
+            "ON CONFLICT (granularity, bucket_start, app_id, uri_id) " +
+            "DO UPDATE SET hits = hit_rollups.hits + EXCLUDED.hits) " +
+            "SELECT count(*) FROM moved";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addAll(Map<RollupKey, Long> increments) {
+        MapSqlParameterSource[] params = increments.entrySet().stream()
+                .map(increment -> new MapSqlParameterSource()
+                        .addValue("granularity", increment.getKey().getGranularity().name())
+                        .addValue("bucketStart", Timestamp.valueOf(increment.getKey().getBucketStart()))
+                        .addValue("appId", increment.getKey().getAppId())
+                        .addValue("uriId", increment.getKey().getUriId())
+                        .addValue("hits", increment.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, params);
+    }
+
+    public void addPending(List<Hit> hits) {
+        MapSqlParameterSource[] params = hits.stream()
+                .map(hit -> new MapSqlParameterSource()
+                        .addValue("appId", hit.getAppId())
+                        .addValue("uriId", hit.getUriId())
+                        .addValue("timestamp", Timestamp.valueOf(hit.getTimestamp())))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_PENDING, params);
+    }
+
+    public long compactPending() {
+        Long moved = jdbcTemplate.getJdbcTemplate().queryForObject(COMPACT_PENDING, Long.class);
+        return moved == null ? 0 : moved;
+    }
+
+    public List<Stat> findAll(List<TimeSegment> segments, List<Integer> uriIds, Pageable page) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = buildQuery(segments, uriIds, params);
+        if (page.isPaged()) {
+            sql += " LIMIT :limit OFFSET :offset";
+            params.addValue("limit", page.getPageSize());
+            params.addValue("offset", page.getOffset());
+        }
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new Stat(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getLong("hits")));
+    }
+
+    public void streamAll(List<TimeSegment> segments, List<Integer> uriIds, Consumer<Stat> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        jdbcTemplate.query(buildQuery(segments, uriIds, params), params, rs -> {
+            consumer.accept(new Stat(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getLong("hits")));
+        });
+    }
+
+    private String buildQuery(List<TimeSegment> segments, List<Integer> uriIds, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("SELECT app_id, uri_id, SUM(hits) AS hits FROM (");
+        for (int i = 0; i < segments.size(); i++) {
+            TimeSegment segment = segments.get(i);
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            if (segment.getGranularity() == null) {
+                sql.append("SELECT app_id, uri_id, COUNT(*) AS hits FROM hits ")
+                        .append("WHERE timestamp >= :start").append(i)
+                        .append(" AND timestamp < :end").append(i);
+            } else {
+                sql.append("SELECT app_id, uri_id, SUM(hits) AS hits FROM hit_rollups ")
+                        .append("WHERE granularity = :granularity").append(i)
+                        .append(" AND bucket_start >= :start").append(i)
+                        .append(" AND bucket_start < :end").append(i);
+                params.addValue("granularity" + i, segment.getGranularity().name());
+            }
+            if (uriIds != null) {
+                sql.append(" AND uri_id IN (:uriIds)");
+            }
+            sql.append(" GROUP BY app_id, uri_id");
+            params.addValue("start" + i, Timestamp.valueOf(segment.getStart()));
+            params.addValue("end" + i, Timestamp.valueOf(segment.getEnd()));
+        }
+        sql.append(") AS segments GROUP BY app_id, uri_id ORDER BY hits DESC, app_id, uri_id");
+        params.addValue("uriIds", uriIds);
+        return sql.toString();
+    }
+
+}
@@ -0,0 +1,81 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.StatPoint;
+import ru.practicum.server.model.TimeSegment;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitSeriesRepository {
+
+    private static final String ORDER = " GROUP BY app_id, uri_id, bucket ORDER BY app_id, uri_id, bucket";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<StatPoint> findSeries(RollupGranularity interval, List<TimeSegment> segments, List<Integer> uriIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT app_id, uri_id, bucket, SUM(hits) AS hits FROM (");
+        for (int i = 0; i < segments.size(); i++) {
+            TimeSegment segment = segments.get(i);
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            if (segment.getGranularity() == null) {
+                sql.append("SELECT app_id, uri_id, date_trunc('").append(truncUnit(interval))
+                        .append("', timestamp) AS bucket, COUNT(*) AS hits FROM hits ")
+                        .append("WHERE timestamp >= :start").append(i)
+                        .append(" AND timestamp < :end").append(i);
+            } else {
+                sql.append("SELECT app_id, uri_id, bucket_start AS bucket, hits FROM hit_rollups ")
+                        .append("WHERE granularity = :granularity").append(i)
+                        .append(" AND bucket_start >= :start").append(i)
+                        .append(" AND bucket_start < :end").append(i);
+                params.addValue("granularity" + i, segment.getGranularity().name());
+            }
+            if (uriIds != null) {
+                sql.append(" AND uri_id IN (:uriIds)");
+            }
+            if (segment.getGranularity() == null) {
+                sql.append(" GROUP BY app_id, uri_id, bucket");
+            }
+            params.addValue("start" + i, Timestamp.valueOf(segment.getStart()));
+            params.addValue("end" + i, Timestamp.valueOf(segment.getEnd()));
+        }
+        sql.append(") AS segments").append(ORDER);
+        params.addValue("uriIds", uriIds);
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> toStatPoint(rs.getInt("app_id"),
+                rs.getInt("uri_id"), rs.getTimestamp("bucket"), rs.getLong("hits")));
+    }
+
+    public List<StatPoint> findUniqueSeries(RollupGranularity interval, TimeSegment segment, List<Integer> uriIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(segment.getStart()))
+                .addValue("end", Timestamp.valueOf(segment.getEnd()))
+                .addValue("uriIds", uriIds);
+        StringBuilder sql = new StringBuilder("SELECT app_id, uri_id, date_trunc('").append(truncUnit(interval))
+                .append("', timestamp) AS bucket, COUNT(DISTINCT ip) AS hits FROM hits ")
+                .append("WHERE timestamp >= :start AND timestamp < :end");
+        if (uriIds != null) {
+            sql.append(" AND uri_id IN (:uriIds)");
+        }
+        sql.append(ORDER);
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> toStatPoint(rs.getInt("app_id"),
+                rs.getInt("uri_id"), rs.getTimestamp("bucket"), rs.getLong("hits")));
+    }
+
+    private static String truncUnit(RollupGranularity interval) {
+        return interval.name().toLowerCase();
+    }
+
+    private static StatPoint toStatPoint(int appId, int uriId, Timestamp bucket, long hits) {
+        return new StatPoint(appId, uriId, bucket.toLocalDateTime(), hits);
+    }
+
+}
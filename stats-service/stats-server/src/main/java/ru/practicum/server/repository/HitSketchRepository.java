@@ -0,0 +1,98 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.HitSketch;
+import ru.practicum.server.model.RollupKey;
+import ru.practicum.server.model.TimeSegment;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    private static final String KEY_CONDITION = "granularity = :granularity AND bucket_start = :bucketStart " +
+            "AND app_id = :appId AND uri_id = :uriId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public boolean insertIfAbsent(RollupKey key, byte[] sketch) {
+        return jdbcTemplate.update("INSERT INTO hit_sketches (granularity, bucket_start, app_id, uri_id, sketch) " +
+                "VALUES (:granularity, :bucketStart, :appId, :uriId, :sketch) ON CONFLICT DO NOTHING",
+                toParams(key).addValue("sketch", sketch)) > 0;
+    }
+
+    public byte[] findForUpdate(RollupKey key) {
+        return jdbcTemplate.queryForObject("SELECT sketch FROM hit_sketches WHERE " + KEY_CONDITION + " FOR UPDATE",
+                toParams(key), byte[].class);
+    }
+
+    public void update(RollupKey key, byte[] sketch) {
+        jdbcTemplate.update("UPDATE hit_sketches SET sketch = :sketch WHERE " + KEY_CONDITION,
+                toParams(key).addValue("sketch", sketch));
+    }
+
+    public void findAll(List<TimeSegment> segments, List<Integer> uriIds, Consumer<HitSketch> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT app_id, uri_id, sketch FROM hit_sketches WHERE (");
+        for (int i = 0; i < segments.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(granularity = :granularity").append(i)
+                    .append(" AND bucket_start >= :start").append(i)
+                    .append(" AND bucket_start < :end").append(i).append(")");
+            params.addValue("granularity" + i, segments.get(i).getGranularity().name());
+            params.addValue("start" + i, Timestamp.valueOf(segments.get(i).getStart()));
+            params.addValue("end" + i, Timestamp.valueOf(segments.get(i).getEnd()));
+        }
+        sql.append(")");
+        if (uriIds != null) {
+            sql.append(" AND uri_id IN (:uriIds)");
+            params.addValue("uriIds", uriIds);
+        }
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            consumer.accept(new HitSketch(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getBytes("sketch")));
+        });
+    }
+
+    public void findDistinctIps(List<TimeSegment> segments, List<Integer> uriIds, Consumer<Hit> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT app_id, uri_id, ip FROM hits WHERE (");
+        for (int i = 0; i < segments.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(timestamp >= :start").append(i).append(" AND timestamp < :end").append(i).append(")");
+            params.addValue("start" + i, Timestamp.valueOf(segments.get(i).getStart()));
+            params.addValue("end" + i, Timestamp.valueOf(segments.get(i).getEnd()));
+        }
+        sql.append(")");
+        if (uriIds != null) {
+            sql.append(" AND uri_id IN (:uriIds)");
+            params.addValue("uriIds", uriIds);
+        }
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            consumer.accept(Hit.builder()
+                    .appId(rs.getInt("app_id"))
+                    .uriId(rs.getInt("uri_id"))
+                    .ip(rs.getString("ip"))
+                    .build());
+        });
+    }
+
+    private MapSqlParameterSource toParams(RollupKey key) {
+        return new MapSqlParameterSource()
+                .addValue("granularity", key.getGranularity().name())
+                .addValue("bucketStart", Timestamp.valueOf(key.getBucketStart()))
+                .addValue("appId", key.getAppId())
+                .addValue("uriId", key.getUriId());
+    }
+
+}
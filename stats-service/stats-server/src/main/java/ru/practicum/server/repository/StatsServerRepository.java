@@ -1,43 +1,85 @@
 package ru.practicum.server.repository;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.server.model.Hit;
 import ru.practicum.server.model.Stat;
 
 import java.time.LocalDateTime;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface StatsServerRepository extends JpaRepository<Hit, Long> {
 
-    @Query("SELECT new ru.practicum.server.model.Stat(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
+    String STREAM_FETCH_SIZE = "1000";
+
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(DISTINCT h.ip)) " +
+            "FROM Hit AS h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC, h.appId, h.uriId")
+    List<Stat> findAllUnique(LocalDateTime start, LocalDateTime end, Pageable page);
+
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(DISTINCT h.ip)) " +
+            "FROM Hit AS h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "AND h.uriId IN(?3) " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC, h.appId, h.uriId")
+    List<Stat> findAllUnique(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Pageable page);
+
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(h.ip)) " +
+            "FROM Hit AS h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(h.ip) DESC, h.appId, h.uriId")
+    List<Stat> findAll(LocalDateTime start, LocalDateTime end, Pageable page);
+
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(h.ip)) " +
+            "FROM Hit AS h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "AND h.uriId IN(?3) " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(h.ip) DESC, h.appId, h.uriId")
+    List<Stat> findAll(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Pageable page);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(DISTINCT h.ip)) " +
             "FROM Hit AS h " +
             "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "GROUP BY h.app, h.uri " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<Stat> findAllUnique(LocalDateTime start, LocalDateTime end);
+    Stream<Stat> streamAllUnique(LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT new ru.practicum.server.model.Stat(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(DISTINCT h.ip)) " +
             "FROM Hit AS h " +
             "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "AND h.uri IN(?3) " +
-            "GROUP BY h.app, h.uri " +
+            "AND h.uriId IN(?3) " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<Stat> findAllUnique(LocalDateTime start, LocalDateTime end, List<String> uris);
+    Stream<Stat> streamAllUnique(LocalDateTime start, LocalDateTime end, List<Integer> uriIds);
 
-    @Query("SELECT new ru.practicum.server.model.Stat(h.app, h.uri, COUNT(h.ip)) " +
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(h.ip)) " +
             "FROM Hit AS h " +
             "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "GROUP BY h.app, h.uri " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(h.ip) DESC")
-    List<Stat> findAll(LocalDateTime start, LocalDateTime end);
+    Stream<Stat> streamAll(LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT new ru.practicum.server.model.Stat(h.app, h.uri, COUNT(h.ip)) " +
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.server.model.Stat(h.appId, h.uriId, COUNT(h.ip)) " +
             "FROM Hit AS h " +
             "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "AND h.uri IN(?3) " +
-            "GROUP BY h.app, h.uri " +
+            "AND h.uriId IN(?3) " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(h.ip) DESC")
-    List<Stat> findAll(LocalDateTime start, LocalDateTime end, List<String> uris);
+    Stream<Stat> streamAll(LocalDateTime start, LocalDateTime end, List<Integer> uriIds);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.server.service;
+
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.Stat;
+
+import java.util.List;
+
+public interface DictionaryService {
+
+    void encode(List<Hit> hits);
+
+    List<Integer> findUriIds(List<String> uris);
+
+    <T extends Stat> List<T> decode(List<T> stats);
+
+}
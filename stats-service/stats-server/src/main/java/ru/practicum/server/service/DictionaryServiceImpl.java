@@ -0,0 +1,136 @@
+package ru.practicum.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.model.Dictionary;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.Stat;
+import ru.practicum.server.repository.DictionaryRepository;
+import ru.practicum.server.utils.DictionaryCache;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class DictionaryServiceImpl implements DictionaryService {
+
+    private final DictionaryRepository dictionaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Dictionary, DictionaryCache> caches = new EnumMap<>(Dictionary.class);
+
+    public DictionaryServiceImpl(DictionaryRepository dictionaryRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${stats.dictionary.cache.maximum-size:100000}") int maximumSize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Dictionary dictionary : Dictionary.values()) {
+            caches.put(dictionary, new DictionaryCache(maximumSize));
+        }
+    }
+
+    @Override
+    public void encode(List<Hit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> appIds = getOrCreateIds(Dictionary.APP, toSet(hits, Hit::getApp));
+        Map<String, Integer> uriIds = getOrCreateIds(Dictionary.URI, toSet(hits, Hit::getUri));
+        for (Hit hit : hits) {
+            hit.setAppId(appIds.get(hit.getApp()));
+            hit.setUriId(uriIds.get(hit.getUri()));
+        }
+    }
+
+    @Override
+    public List<Integer> findUriIds(List<String> uris) {
+        Map<String, Integer> ids = findIds(Dictionary.URI, new HashSet<>(uris));
+        return new ArrayList<>(ids.values());
+    }
+
+    @Override
+    public <T extends Stat> List<T> decode(List<T> stats) {
+        Map<Integer, String> apps = findNames(Dictionary.APP, toSet(stats, Stat::getAppId));
+        Map<Integer, String> uris = findNames(Dictionary.URI, toSet(stats, Stat::getUriId));
+        for (Stat stat : stats) {
+            stat.setApp(apps.get(stat.getAppId()));
+            stat.setUri(uris.get(stat.getUriId()));
+        }
+        return stats;
+    }
+
+    private Map<String, Integer> getOrCreateIds(Dictionary dictionary, Set<String> names) {
+        Map<String, Integer> ids = findIds(dictionary, names);
+        if (ids.size() < names.size()) {
+            Set<String> missing = new HashSet<>(names);
+            missing.removeAll(ids.keySet());
+            Map<String, Integer> created = transactionTemplate.execute(status -> {
+                dictionaryRepository.insertAll(dictionary, missing);
+                return dictionaryRepository.findIds(dictionary, missing);
+            });
+            caches.get(dictionary).putAll(Objects.requireNonNull(created));
+            ids.putAll(created);
+            log.info("Добавлено записей в словарь {}: {}", dictionary.getTable(), missing.size());
+        }
+        return ids;
+    }
+
+    private Map<String, Integer> findIds(Dictionary dictionary, Set<String> names) {
+        DictionaryCache cache = caches.get(dictionary);
+        Map<String, Integer> ids = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String name : names) {
+            Integer id = cache.getId(name);
+            if (id == null) {
+                missing.add(name);
+            } else {
+                ids.put(name, id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Integer> found = dictionaryRepository.findIds(dictionary, missing);
+            cache.putAll(found);
+            ids.putAll(found);
+        }
+        return ids;
+    }
+
+    private Map<Integer, String> findNames(Dictionary dictionary, Set<Integer> ids) {
+        DictionaryCache cache = caches.get(dictionary);
+        Map<Integer, String> names = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer id : ids) {
+            String name = cache.getName(id);
+            if (name == null) {
+                missing.add(id);
+            } else {
+                names.put(id, name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Integer, String> found = dictionaryRepository.findNames(dictionary, missing);
+            cache.putAll(found.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey)));
+            names.putAll(found);
+        }
+        return names;
+    }
+
+    private static <T, R> Set<R> toSet(List<? extends T> items, Function<T, R> mapper) {
+        return items.stream().map(mapper).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,7 @@
+package ru.practicum.server.service;
+
+public interface PartitionService {
+
+    void maintainPartitions();
+
+}
@@ -0,0 +1,95 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.model.PartitionInterval;
+import ru.practicum.server.repository.HitPartitionRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static ru.practicum.server.repository.HitPartitionRepository.PARTITION_PREFIX;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PartitionServiceImpl implements PartitionService {
+
+    private final HitPartitionRepository hitPartitionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.hits.partition.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stats.hits.partition.interval:MONTH}")
+    private PartitionInterval interval;
+
+    @Value("${stats.hits.partition.premake:2}")
+    private int premake;
+
+    @Value("${stats.hits.partition.retention:0}")
+    private int retention;
+
+    @Value("${stats.hits.partition.archive:false}")
+    private boolean archive;
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats.hits.partition.check-interval:3600000}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        Set<String> partitions = new HashSet<>(hitPartitionRepository.findPartitions());
+        LocalDate current = interval.floor(LocalDate.now());
+        LocalDate start = current;
+        LocalDateTime oldest = hitPartitionRepository.findDefaultMinTimestamp();
+        if (oldest != null && oldest.toLocalDate().isBefore(current)) {
+            start = interval.floor(oldest.toLocalDate());
+            log.info("В секции по умолчанию есть записи с {}, секции создаются начиная с {}", oldest, start);
+        }
+        LocalDate end = interval.plus(current, premake);
+        while (!start.isAfter(end)) {
+            String name = PARTITION_PREFIX + interval.suffix(start);
+            if (!partitions.contains(name)) {
+                LocalDate from = start;
+                LocalDate to = interval.next(start);
+                try {
+                    Integer moved = transactionTemplate.execute(status ->
+                            hitPartitionRepository.createPartition(name, from, to));
+                    log.info("Создана секция {} [{} - {}), перенесено записей: {}", name, from, to, moved);
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось создать секцию {} [{} - {}): {}", name, from, to, e.getMessage());
+                }
+            }
+            start = interval.next(start);
+        }
+        if (retention <= 0) {
+            return;
+        }
+        LocalDate cutoff = interval.minus(current, retention);
+        for (String name : partitions) {
+            LocalDate partitionStart = interval.parse(name.substring(PARTITION_PREFIX.length()));
+            if (partitionStart == null || interval.next(partitionStart).isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                if (archive) {
+                    transactionTemplate.executeWithoutResult(status -> hitPartitionRepository.detachPartition(name));
+                    log.info("Секция {} отсоединена для архивации", name);
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> hitPartitionRepository.dropPartition(name));
+                    log.info("Секция {} удалена по сроку хранения", name);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Не удалось освободить секцию {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package ru.practicum.server.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.Stat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface RollupService {
+
+    boolean isEnabled();
+
+    void addHits(List<Hit> hits);
+
+    void addHitsDeferred(List<Hit> hits);
+
+    void compactPending();
+
+    List<Stat> getStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Pageable page);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Consumer<Stat> consumer);
+
+}
@@ -0,0 +1,88 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.RollupKey;
+import ru.practicum.server.model.Stat;
+import ru.practicum.server.model.TimeSegment;
+import ru.practicum.server.repository.HitRollupRepository;
+import ru.practicum.server.utils.SegmentPlanner;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RollupServiceImpl implements RollupService {
+
+    private final HitRollupRepository hitRollupRepository;
+
+    @Value("${stats.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void addHits(List<Hit> hits) {
+        if (!enabled || hits.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Long> increments = new TreeMap<>();
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                RollupKey key = new RollupKey(granularity, granularity.floor(hit.getTimestamp()),
+                        hit.getAppId(), hit.getUriId());
+                increments.merge(key, 1L, Long::sum);
+            }
+        }
+        hitRollupRepository.addAll(increments);
+    }
+
+    @Override
+    public void addHitsDeferred(List<Hit> hits) {
+        if (!enabled || hits.isEmpty()) {
+            return;
+        }
+        hitRollupRepository.addPending(hits);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats.rollup.compact-interval:1000}")
+    public void compactPending() {
+        if (!enabled) {
+            return;
+        }
+        long moved = hitRollupRepository.compactPending();
+        if (moved > 0) {
+            log.debug("Перенесено в агрегаты отложенных просмотров: {}", moved);
+        }
+    }
+
+    @Override
+    public List<Stat> getStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Pageable page) {
+        List<TimeSegment> segments = SegmentPlanner.plan(start, end.plusSeconds(1), RollupGranularity.values());
+        log.info("Запрос статистики по агрегатам: {} сегментов", segments.size());
+        return hitRollupRepository.findAll(segments, uriIds, page);
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Consumer<Stat> consumer) {
+        List<TimeSegment> segments = SegmentPlanner.plan(start, end.plusSeconds(1), RollupGranularity.values());
+        log.info("Потоковый запрос статистики по агрегатам: {} сегментов", segments.size());
+        hitRollupRepository.streamAll(segments, uriIds, consumer);
+    }
+
+}
@@ -0,0 +1,19 @@
+package ru.practicum.server.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.Stat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SketchService {
+
+    boolean isEnabled();
+
+    void addHits(List<Hit> hits);
+
+    List<Stat> getUniqueStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds,
+                                Pageable page);
+
+}
@@ -0,0 +1,101 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.RollupKey;
+import ru.practicum.server.model.Stat;
+import ru.practicum.server.model.TimeSegment;
+import ru.practicum.server.repository.HitSketchRepository;
+import ru.practicum.server.utils.HyperLogLog;
+import ru.practicum.server.utils.SegmentPlanner;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SketchServiceImpl implements SketchService {
+
+    private static final RollupGranularity[] GRANULARITIES = {RollupGranularity.HOUR, RollupGranularity.DAY};
+
+    private final HitSketchRepository hitSketchRepository;
+
+    @Value("${stats.unique.approx.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stats.unique.approx.error:0.02}")
+    private double standardError;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void addHits(List<Hit> hits) {
+        if (!enabled || hits.isEmpty()) {
+            return;
+        }
+        int precision = HyperLogLog.precisionForError(standardError);
+        Map<RollupKey, HyperLogLog> sketches = new TreeMap<>();
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                RollupKey key = new RollupKey(granularity, granularity.floor(hit.getTimestamp()),
+                        hit.getAppId(), hit.getUriId());
+                sketches.computeIfAbsent(key, k -> new HyperLogLog(precision)).add(hit.getIp());
+            }
+        }
+        sketches.forEach((key, sketch) -> {
+            if (!hitSketchRepository.insertIfAbsent(key, sketch.toBytes())) {
+                HyperLogLog stored = HyperLogLog.fromBytes(hitSketchRepository.findForUpdate(key));
+                stored.merge(sketch);
+                hitSketchRepository.update(key, stored.toBytes());
+            }
+        });
+    }
+
+    @Override
+    public List<Stat> getUniqueStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Pageable page) {
+        long startTime = System.nanoTime();
+        List<TimeSegment> segments = SegmentPlanner.plan(start, end.plusSeconds(1), GRANULARITIES);
+        Map<Boolean, List<TimeSegment>> isRaw = segments.stream()
+                .collect(Collectors.partitioningBy(segment -> segment.getGranularity() == null));
+
+        int precision = HyperLogLog.precisionForError(standardError);
+        Map<List<Integer>, HyperLogLog> merged = new HashMap<>();
+        if (!isRaw.get(false).isEmpty()) {
+            hitSketchRepository.findAll(isRaw.get(false), uriIds, hitSketch ->
+                    merged.computeIfAbsent(List.of(hitSketch.getAppId(), hitSketch.getUriId()),
+                                    key -> new HyperLogLog(precision))
+                            .merge(HyperLogLog.fromBytes(hitSketch.getSketch())));
+        }
+        if (!isRaw.get(true).isEmpty()) {
+            hitSketchRepository.findDistinctIps(isRaw.get(true), uriIds, hit ->
+                    merged.computeIfAbsent(List.of(hit.getAppId(), hit.getUriId()), key -> new HyperLogLog(precision))
+                            .add(hit.getIp()));
+        }
+        List<Stat> stats = merged.entrySet().stream()
+                .map(entry -> new Stat(entry.getKey().get(0), entry.getKey().get(1), entry.getValue().estimate()))
+                .sorted(Comparator.comparing(Stat::getHits).reversed()
+                        .thenComparing(Stat::getAppId)
+                        .thenComparing(Stat::getUriId))
+                .skip(page.isPaged() ? page.getOffset() : 0)
+                .limit(page.isPaged() ? page.getPageSize() : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+        log.info("Приблизительная статистика уникальных просмотров: {} сегментов, {} uri, {} мс",
+                segments.size(), stats.size(), (System.nanoTime() - startTime) / 1_000_000);
+        return stats;
+    }
+
+}
@@ -1,13 +1,29 @@
 package ru.practicum.server.service;
 
+import ru.practicum.dto.HitBatchResultDto;
 import ru.practicum.dto.HitDto;
 import ru.practicum.dto.StatDto;
+import ru.practicum.dto.StatSeriesDto;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.UniqueMode;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface StatService {
     void saveStats(HitDto hitDto);
 
-    List<StatDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
+    HitBatchResultDto saveStatsBatch(List<HitDto> hits);
+
+    HitBatchResultDto saveStatsStream(InputStream body);
+
+    List<StatDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, UniqueMode unique,
+                           Integer limit, Integer offset);
+
+    List<StatSeriesDto> getStatsSeries(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                       RollupGranularity interval, boolean unique);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, UniqueMode unique, OutputStream out);
 }
@@ -1,20 +1,49 @@
 package ru.practicum.server.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.HitBatchResultDto;
 import ru.practicum.dto.HitDto;
 import ru.practicum.dto.StatDto;
+import ru.practicum.dto.StatSeriesDto;
 import ru.practicum.server.exception.BadRequestException;
 import ru.practicum.server.mapper.HitMapper;
 import ru.practicum.server.mapper.StatsMapper;
+import ru.practicum.server.model.Hit;
+import ru.practicum.server.model.RollupGranularity;
 import ru.practicum.server.model.Stat;
+import ru.practicum.server.model.StatPoint;
+import ru.practicum.server.model.TimeSegment;
+import ru.practicum.server.model.UniqueMode;
+import ru.practicum.server.repository.HitBatchRepository;
+import ru.practicum.server.repository.HitSeriesRepository;
 import ru.practicum.server.repository.StatsServerRepository;
+import ru.practicum.server.utils.OffsetPageRequest;
+import ru.practicum.server.utils.SegmentPlanner;
 
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -23,27 +52,264 @@ import java.util.stream.Collectors;
 public class StatServiceImpl implements StatService {
 
     private final StatsServerRepository statsServerRepository;
+    private final HitBatchRepository hitBatchRepository;
+    private final RollupService rollupService;
+    private final SketchService sketchService;
+    private final DictionaryService dictionaryService;
+    private final HitSeriesRepository hitSeriesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    @Transactional
+    @Value("${stats.hits.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${stats.stream.chunk-size:1000}")
+    private int streamChunkSize;
+
+    @Value("${stats.series.max-buckets:10000}")
+    private long seriesMaxBuckets;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public void saveStats(HitDto hitDto) {
-        statsServerRepository.save(HitMapper.toHit(hitDto));
+        Hit hit = HitMapper.toHit(hitDto);
+        dictionaryService.encode(List.of(hit));
+        transactionTemplate.executeWithoutResult(status -> {
+            statsServerRepository.save(hit);
+            rollupService.addHitsDeferred(List.of(hit));
+            sketchService.addHits(List.of(hit));
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public HitBatchResultDto saveStatsBatch(List<HitDto> hits) {
+        long startTime = System.nanoTime();
+        List<Hit> batch = new ArrayList<>(hits.size());
+        for (HitDto hitDto : hits) {
+            Hit hit = toValidHit(hitDto);
+            if (hit != null) {
+                batch.add(hit);
+            }
+        }
+        int accepted = saveChunk(batch);
+        return toBatchResult(accepted, hits.size() - batch.size(), true, startTime);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public HitBatchResultDto saveStatsStream(InputStream body) {
+        long startTime = System.nanoTime();
+        int accepted = 0;
+        int rejected = 0;
+        boolean complete = true;
+        List<Hit> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Hit hit = toValidHit(parseHit(line));
+                if (hit == null) {
+                    rejected++;
+                    continue;
+                }
+                batch.add(hit);
+                if (batch.size() == batchSize) {
+                    accepted += saveChunk(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Поток просмотров прерван после {} записей: {}",
+                    accepted + rejected + batch.size(), e.getMessage());
+            complete = false;
+        }
+        if (!batch.isEmpty()) {
+            accepted += saveChunk(batch);
+        }
+        return toBatchResult(accepted, rejected, complete, startTime);
+    }
+
+    @Override
+    public List<StatDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, UniqueMode unique,
+                                  Integer limit, Integer offset) {
+        checkRange(start, end);
+        Pageable page = toPage(limit, offset);
+        List<Integer> uriIds = toUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return List.of();
+        }
+        List<Stat> stats;
+        if (unique == UniqueMode.FALSE && rollupService.isEnabled()) {
+            stats = rollupService.getStats(start, end, uriIds, page);
+        } else if (unique == UniqueMode.APPROX && sketchService.isEnabled()) {
+            stats = sketchService.getUniqueStats(start, end, uriIds, page);
+        } else if (unique == UniqueMode.FALSE) {
+            stats = uriIds == null
+                    ? statsServerRepository.findAll(start, end, page)
+                    : statsServerRepository.findAll(start, end, uriIds, page);
+        } else {
+            stats = uriIds == null
+                    ? statsServerRepository.findAllUnique(start, end, page)
+                    : statsServerRepository.findAllUnique(start, end, uriIds, page);
+        }
+        return dictionaryService.decode(stats).stream().map(StatsMapper::toStatDto).collect(Collectors.toList());
     }
 
     @Override
-    public List<StatDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    public List<StatSeriesDto> getStatsSeries(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                              RollupGranularity interval, boolean unique) {
+        checkRange(start, end);
+        LocalDateTime endExclusive = end.plusSeconds(1);
+        if (interval.between(start, endExclusive) > seriesMaxBuckets) {
+            log.error("Слишком много интервалов {} в диапазоне {} - {}", interval, start, end);
+            throw new BadRequestException("Количество интервалов превышает " + seriesMaxBuckets);
+        }
+        List<Integer> uriIds = toUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return List.of();
+        }
+        List<StatPoint> points;
+        if (unique) {
+            points = hitSeriesRepository.findUniqueSeries(interval, new TimeSegment(null, start, endExclusive), uriIds);
+        } else if (rollupService.isEnabled()) {
+            points = hitSeriesRepository.findSeries(interval, SegmentPlanner.plan(start, endExclusive, interval), uriIds);
+        } else {
+            points = hitSeriesRepository.findSeries(interval, List.of(new TimeSegment(null, start, endExclusive)),
+                    uriIds);
+        }
+        return dictionaryService.decode(points).stream()
+                .map(StatsMapper::toStatSeriesDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, UniqueMode unique,
+                            OutputStream out) {
+        checkRange(start, end);
+        List<Integer> uriIds = toUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        List<Stat> chunk = new ArrayList<>(streamChunkSize);
+        long[] written = {0};
+        Consumer<Stat> writer = stat -> {
+            chunk.add(stat);
+            if (chunk.size() == streamChunkSize) {
+                written[0] += writeChunk(chunk, out);
+            }
+        };
+        if (unique == UniqueMode.FALSE && rollupService.isEnabled()) {
+            rollupService.streamStats(start, end, uriIds, writer);
+        } else {
+            try (Stream<Stat> stats = streamFromHits(start, end, uriIds, unique)) {
+                stats.forEach(writer);
+            }
+        }
+        written[0] += writeChunk(chunk, out);
+        log.info("Потоковая выдача статистики: {} строк, {} мс", written[0],
+                (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private Stream<Stat> streamFromHits(LocalDateTime start, LocalDateTime end, List<Integer> uriIds,
+                                        UniqueMode unique) {
+        if (unique == UniqueMode.FALSE) {
+            return uriIds == null
+                    ? statsServerRepository.streamAll(start, end)
+                    : statsServerRepository.streamAll(start, end, uriIds);
+        }
+        return uriIds == null
+                ? statsServerRepository.streamAllUnique(start, end)
+                : statsServerRepository.streamAllUnique(start, end, uriIds);
+    }
+
+    private int writeChunk(List<Stat> chunk, OutputStream out) {
+        int size = chunk.size();
+        try {
+            for (Stat stat : dictionaryService.decode(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(StatsMapper.toStatDto(stat)));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            log.error("Ошибка записи потока статистики: {}", e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        return size;
+    }
+
+    private void checkRange(LocalDateTime start, LocalDateTime end) {
         if (end.isBefore(start)) {
             log.error("Дата окончания не может быть ранее даты начала");
             throw new BadRequestException("Дата окончания не может быть ранее даты начала");
         }
-        List<Stat> stats = (uris == null || uris.isEmpty())
-                ? unique
-                ? statsServerRepository.findAllUnique(start, end)
-                : statsServerRepository.findAll(start, end)
-                : unique
-                ? statsServerRepository.findAllUnique(start, end, uris)
-                : statsServerRepository.findAll(start, end, uris);
-        return stats.stream().map(StatsMapper::toStatDto).collect(Collectors.toList());
+    }
+
+    private Pageable toPage(Integer limit, Integer offset) {
+        if (limit == null) {
+            return Pageable.unpaged();
+        }
+        if (limit <= 0 || offset < 0) {
+            log.error("Некорректные параметры limit {} и offset {}", limit, offset);
+            throw new BadRequestException("Параметр limit должен быть положительным, offset — неотрицательным");
+        }
+        return new OffsetPageRequest(offset, limit);
+    }
+
+    private List<Integer> toUriIds(List<String> uris) {
+        if (uris == null || uris.isEmpty()) {
+            return null;
+        }
+        return dictionaryService.findUriIds(uris);
+    }
+
+    private int saveChunk(List<Hit> batch) {
+        dictionaryService.encode(batch);
+        Integer saved = transactionTemplate.execute(status -> {
+            int count = hitBatchRepository.saveAll(batch, batchSize);
+            rollupService.addHits(batch);
+            sketchService.addHits(batch);
+            return count;
+        });
+        return saved == null ? 0 : saved;
+    }
+
+    private HitDto parseHit(String line) {
+        try {
+            return objectMapper.readValue(line, HitDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректная строка в потоке просмотров: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private Hit toValidHit(HitDto hitDto) {
+        if (hitDto == null || !validator.validate(hitDto).isEmpty()) {
+            return null;
+        }
+        try {
+            return HitMapper.toHit(hitDto);
+        } catch (DateTimeParseException e) {
+            log.warn("Некорректный timestamp просмотра: {}", hitDto.getTimestamp());
+            return null;
+        }
+    }
+
+    private HitBatchResultDto toBatchResult(int accepted, int rejected, boolean complete, long startTime) {
+        long elapsedNanos = Math.max(System.nanoTime() - startTime, 1);
+        long hitsPerSecond = accepted * 1_000_000_000L / elapsedNanos;
+        log.info("Сохранено {} просмотров, отклонено {}, {} просмотров/с", accepted, rejected, hitsPerSecond);
+        return HitBatchResultDto.builder()
+                .accepted(accepted)
+                .rejected(rejected)
+                .hitsPerSecond(hitsPerSecond)
+                .complete(complete)
+                .build();
     }
 
 }
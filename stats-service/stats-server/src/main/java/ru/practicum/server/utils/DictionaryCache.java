@@ -0,0 +1,39 @@
+package ru.practicum.server.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DictionaryCache {
+
+    private final int maximumSize;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public DictionaryCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Integer getId(String name) {
+        return ids.get(name);
+    }
+
+    public String getName(Integer id) {
+        return names.get(id);
+    }
+
+    public void putAll(Map<String, Integer> entries) {
+        if (ids.size() + entries.size() > maximumSize) {
+            ids.clear();
+            names.clear();
+        }
+        entries.forEach((name, id) -> {
+            ids.put(name, id);
+            names.put(id, name);
+        });
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+}
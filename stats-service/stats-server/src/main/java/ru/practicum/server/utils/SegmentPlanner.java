@@ -0,0 +1,44 @@
+package ru.practicum.server.utils;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.TimeSegment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class SegmentPlanner {
+
+    public static List<TimeSegment> plan(LocalDateTime start, LocalDateTime end, RollupGranularity... granularities) {
+        RollupGranularity[] levels = new RollupGranularity[granularities.length + 1];
+        System.arraycopy(granularities, 0, levels, 1, granularities.length);
+        List<TimeSegment> segments = new ArrayList<>();
+        LocalDateTime cursor = start;
+        int top = 0;
+        for (int i = 1; i < levels.length; i++) {
+            LocalDateTime boundary = levels[i].ceil(cursor);
+            if (boundary.isAfter(end)) {
+                break;
+            }
+            addSegment(segments, levels[i - 1], cursor, boundary);
+            cursor = boundary;
+            top = i;
+        }
+        for (int i = top; i >= 0; i--) {
+            LocalDateTime boundary = i == 0 ? end : levels[i].floor(end);
+            addSegment(segments, levels[i], cursor, boundary);
+            cursor = boundary;
+        }
+        return segments;
+    }
+
+    private static void addSegment(List<TimeSegment> segments, RollupGranularity granularity,
+                                   LocalDateTime start, LocalDateTime end) {
+        if (start.isBefore(end)) {
+            segments.add(new TimeSegment(granularity, start, end));
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    ip VARCHAR(64) NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    hits BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, app, uri)
+    );
+
+CREATE TABLE IF NOT EXISTS hit_sketches (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    sketch BYTEA NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, app, uri)
+    );
+
+INSERT INTO hit_rollups (granularity, bucket_start, app, uri, hits)
+SELECT g.granularity, date_trunc(g.unit, h.timestamp), h.app, h.uri, count(*)
+FROM hits AS h
+CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+GROUP BY g.granularity, date_trunc(g.unit, h.timestamp), h.app, h.uri
+ON CONFLICT (granularity, bucket_start, app, uri) DO NOTHING;
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS hits_timestamp_uri_idx ON hits (timestamp, uri);
+CREATE INDEX IF NOT EXISTS hits_uri_timestamp_idx ON hits (uri, timestamp) INCLUDE (app, ip);
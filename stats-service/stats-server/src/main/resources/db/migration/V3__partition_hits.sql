@@ -0,0 +1,26 @@
+ALTER TABLE hits RENAME TO hits_legacy;
+ALTER TABLE hits_legacy RENAME CONSTRAINT hits_pkey TO hits_legacy_pkey;
+
+CREATE SEQUENCE IF NOT EXISTS hits_part_id_seq;
+SELECT setval('hits_part_id_seq', COALESCE((SELECT MAX(id) FROM hits_legacy), 0) + 1, false);
+
+CREATE TABLE hits (
+    id BIGINT NOT NULL DEFAULT nextval('hits_part_id_seq'),
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    ip VARCHAR(64) NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE hits_part_id_seq OWNED BY hits.id;
+
+CREATE TABLE hits_default PARTITION OF hits DEFAULT;
+
+INSERT INTO hits (id, app, uri, ip, timestamp)
+SELECT id, app, uri, ip, timestamp FROM hits_legacy;
+
+DROP TABLE hits_legacy;
+
+CREATE INDEX IF NOT EXISTS hits_timestamp_uri_idx ON hits (timestamp, uri);
+CREATE INDEX IF NOT EXISTS hits_uri_timestamp_idx ON hits (uri, timestamp) INCLUDE (app, ip);
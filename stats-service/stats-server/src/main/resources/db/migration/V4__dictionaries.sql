@@ -0,0 +1,37 @@
+CREATE TABLE IF NOT EXISTS apps (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+    );
+
+CREATE TABLE IF NOT EXISTS uris (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(512) NOT NULL UNIQUE
+    );
+
+INSERT INTO apps (name)
+SELECT app FROM hits UNION SELECT app FROM hit_rollups UNION SELECT app FROM hit_sketches
+ON CONFLICT DO NOTHING;
+
+INSERT INTO uris (name)
+SELECT uri FROM hits UNION SELECT uri FROM hit_rollups UNION SELECT uri FROM hit_sketches
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE hits ADD COLUMN app_id INTEGER, ADD COLUMN uri_id INTEGER;
+UPDATE hits h SET app_id = a.id, uri_id = u.id FROM apps a, uris u WHERE a.name = h.app AND u.name = h.uri;
+ALTER TABLE hits ALTER COLUMN app_id SET NOT NULL, ALTER COLUMN uri_id SET NOT NULL,
+    DROP COLUMN app, DROP COLUMN uri;
+
+ALTER TABLE hit_rollups ADD COLUMN app_id INTEGER, ADD COLUMN uri_id INTEGER;
+UPDATE hit_rollups r SET app_id = a.id, uri_id = u.id FROM apps a, uris u WHERE a.name = r.app AND u.name = r.uri;
+ALTER TABLE hit_rollups ALTER COLUMN app_id SET NOT NULL, ALTER COLUMN uri_id SET NOT NULL,
+    DROP COLUMN app, DROP COLUMN uri;
+ALTER TABLE hit_rollups ADD PRIMARY KEY (granularity, bucket_start, app_id, uri_id);
+
+ALTER TABLE hit_sketches ADD COLUMN app_id INTEGER, ADD COLUMN uri_id INTEGER;
+UPDATE hit_sketches s SET app_id = a.id, uri_id = u.id FROM apps a, uris u WHERE a.name = s.app AND u.name = s.uri;
+ALTER TABLE hit_sketches ALTER COLUMN app_id SET NOT NULL, ALTER COLUMN uri_id SET NOT NULL,
+    DROP COLUMN app, DROP COLUMN uri;
+ALTER TABLE hit_sketches ADD PRIMARY KEY (granularity, bucket_start, app_id, uri_id);
+
+CREATE INDEX IF NOT EXISTS hits_timestamp_uri_idx ON hits (timestamp, uri_id);
+CREATE INDEX IF NOT EXISTS hits_uri_timestamp_idx ON hits (uri_id, timestamp) INCLUDE (app_id, ip);
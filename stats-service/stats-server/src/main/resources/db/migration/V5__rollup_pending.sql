@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS hit_rollup_pending (
+    app_id INTEGER NOT NULL,
+    uri_id INTEGER NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
+    );
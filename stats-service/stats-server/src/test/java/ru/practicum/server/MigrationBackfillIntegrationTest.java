@@ -0,0 +1,60 @@
+package ru.practicum.server;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MigrationBackfillIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String SCHEMA = "legacy_stats";
+    private static final int HITS = 5_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void migrationShouldBackfillRollupsFromExistingHits() {
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE " + SCHEMA + ".hits (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "app VARCHAR(255) NOT NULL, " +
+                "uri VARCHAR(512) NOT NULL, " +
+                "ip VARCHAR(64) NOT NULL, " +
+                "timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL)");
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".hits (app, uri, ip, timestamp) " +
+                "SELECT 'ewm-main-service', '/events/' || i % 7, '10.0.0.' || i % 5, " +
+                "now() - i * interval '1 minute' FROM generate_series(1, ?) AS i", HITS);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        List<Map<String, Object>> rollups = jdbcTemplate.queryForList("SELECT granularity, SUM(hits) AS hits " +
+                "FROM " + SCHEMA + ".hit_rollups GROUP BY granularity");
+        assertThat(rollups).hasSize(3)
+                .allSatisfy(rollup -> assertThat(((Number) rollup.get("hits")).longValue()).isEqualTo(HITS));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + SCHEMA + ".hits", Long.class))
+                .isEqualTo(HITS);
+    }
+
+}
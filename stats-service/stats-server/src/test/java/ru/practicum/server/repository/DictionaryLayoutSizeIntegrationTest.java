@@ -0,0 +1,75 @@
+package ru.practicum.server.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.server.PostgresIntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class DictionaryLayoutSizeIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int HITS = 200_000;
+    private static final int URIS = 5_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS layout_strings, layout_ids");
+    }
+
+    @Test
+    void encodedLayoutShouldBeSmallerThanStringLayout() {
+        jdbcTemplate.execute("CREATE TABLE layout_strings (id BIGINT PRIMARY KEY, app VARCHAR(255) NOT NULL, " +
+                "uri VARCHAR(512) NOT NULL, ip VARCHAR(64) NOT NULL, timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL)");
+        jdbcTemplate.update("INSERT INTO layout_strings " +
+                "SELECT i, 'ewm-main-service', '/events/' || (i % ? + 1) || '/compilations/' || (i % 97), " +
+                "'192.168.' || i % 256 || '.' || i % 199, now() - i * interval '10 seconds' " +
+                "FROM generate_series(1, ?) AS i", URIS, HITS);
+        jdbcTemplate.execute("CREATE INDEX ON layout_strings (timestamp, uri)");
+        jdbcTemplate.execute("CREATE INDEX ON layout_strings (uri, timestamp) INCLUDE (app, ip)");
+
+        jdbcTemplate.execute("CREATE TABLE layout_ids (id BIGINT PRIMARY KEY, app_id INTEGER NOT NULL, " +
+                "uri_id INTEGER NOT NULL, ip VARCHAR(64) NOT NULL, timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO layout_ids " +
+                "SELECT s.id, 1, d.uri_id, s.ip, s.timestamp FROM layout_strings s " +
+                "JOIN (SELECT uri, ROW_NUMBER() OVER (ORDER BY uri)::INTEGER AS uri_id " +
+                "FROM (SELECT DISTINCT uri FROM layout_strings) u) d ON d.uri = s.uri");
+        jdbcTemplate.execute("CREATE INDEX ON layout_ids (timestamp, uri_id)");
+        jdbcTemplate.execute("CREATE INDEX ON layout_ids (uri_id, timestamp) INCLUDE (app_id, ip)");
+        jdbcTemplate.execute("VACUUM ANALYZE layout_strings");
+        jdbcTemplate.execute("VACUUM ANALYZE layout_ids");
+
+        long stringTable = size("pg_table_size", "layout_strings");
+        long idTable = size("pg_table_size", "layout_ids");
+        long stringIndexes = size("pg_indexes_size", "layout_strings");
+        long idIndexes = size("pg_indexes_size", "layout_ids");
+        long stringGroupBy = groupByMillis("SELECT app, uri, COUNT(ip) FROM layout_strings GROUP BY app, uri");
+        long idGroupBy = groupByMillis("SELECT app_id, uri_id, COUNT(ip) FROM layout_ids GROUP BY app_id, uri_id");
+        log.info("Строки: таблица {} байт, индексы {} байт, GROUP BY {} мс; " +
+                        "идентификаторы: таблица {} байт, индексы {} байт, GROUP BY {} мс",
+                stringTable, stringIndexes, stringGroupBy, idTable, idIndexes, idGroupBy);
+
+        assertThat(idTable * 3).isLessThan(stringTable * 2);
+        assertThat(idIndexes * 4).isLessThan(stringIndexes * 3);
+    }
+
+    private long size(String function, String table) {
+        return jdbcTemplate.queryForObject("SELECT " + function + "('" + table + "')", Long.class);
+    }
+
+    private long groupByMillis(String sql) {
+        jdbcTemplate.queryForList(sql);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.queryForList(sql);
+        }
+        return (System.nanoTime() - startTime) / 5_000_000;
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.practicum.server.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.server.PostgresIntegrationTest;
+import ru.practicum.server.SqlCapture;
+import ru.practicum.server.utils.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.server.SqlCapture")
+class StatsIndexUsageIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int HITS = 100_000;
+    private static final int URIS = 500;
+
+    @Autowired
+    private StatsServerRepository statsServerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE hits");
+        jdbcTemplate.update("INSERT INTO hits (app_id, uri_id, ip, timestamp) " +
+                "SELECT 1, i % ? + 1, '10.0.' || i % 256 || '.' || i % 199, " +
+                "date_trunc('second', now()) - i * interval '25 seconds' FROM generate_series(1, ?) AS i",
+                URIS, HITS);
+        jdbcTemplate.execute("ANALYZE hits");
+    }
+
+    @Test
+    void findAllForRecentWindowShouldUseTimestampIndex() {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minusHours(1);
+        SqlCapture.clear();
+        statsServerRepository.findAll(start, end, new OffsetPageRequest(0, 10));
+
+        assertThat(explain(start, end, 10))
+                .contains("timestamp_uri_id_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findAllForUrisShouldUseUriIndex() {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minusDays(30);
+        SqlCapture.clear();
+        statsServerRepository.findAll(start, end, List.of(7), new OffsetPageRequest(0, 10));
+
+        assertThat(explain(start, end, 7, 10))
+                .contains("uri_id_timestamp")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String explain(Object... params) {
+        String sql = SqlCapture.statements().get(0);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+    }
+
+}
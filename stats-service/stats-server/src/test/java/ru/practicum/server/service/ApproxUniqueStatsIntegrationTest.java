@@ -0,0 +1,81 @@
+package ru.practicum.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.dto.HitDto;
+import ru.practicum.dto.StatDto;
+import ru.practicum.server.PostgresIntegrationTest;
+import ru.practicum.server.model.UniqueMode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@TestPropertySource(properties = {"stats.unique.approx.enabled=true", "stats.unique.approx.error=0.02"})
+class ApproxUniqueStatsIntegrationTest extends PostgresIntegrationTest {
+
+    private static final double STANDARD_ERROR = 0.02;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime FROM = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final Map<String, Integer> DISTINCT_IPS = Map.of(
+            "/events/1", 20_000,
+            "/events/2", 5_000,
+            "/events/3", 500);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private StatService statService;
+
+    @Test
+    void approxUniqueStatsShouldMatchExactWithinConfiguredError() {
+        List<HitDto> batch = new ArrayList<>(BATCH_SIZE);
+        DISTINCT_IPS.forEach((uri, ips) -> {
+            for (int ip = 0; ip < ips; ip++) {
+                for (int visit = 0; visit < 2; visit++) {
+                    long second = ((long) ip * 7_919 + visit * 3_600L) % (3 * 24 * 3_600);
+                    batch.add(new HitDto("ewm-main-service", uri, "10." + (ip >>> 16) + "." + (ip >>> 8 & 0xff)
+                            + "." + (ip & 0xff), FROM.plusSeconds(second).format(FORMATTER)));
+                    if (batch.size() == BATCH_SIZE) {
+                        statService.saveStatsBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        });
+        statService.saveStatsBatch(batch);
+
+        LocalDateTime start = FROM;
+        LocalDateTime end = FROM.plusDays(2).plusHours(12).plusMinutes(30);
+        List<String> uris = List.copyOf(DISTINCT_IPS.keySet());
+        statService.getStats(start, end, uris, UniqueMode.TRUE, null, null);
+        statService.getStats(start, end, uris, UniqueMode.APPROX, null, null);
+
+        long exactStart = System.nanoTime();
+        Map<String, Long> exact = toHits(statService.getStats(start, end, uris, UniqueMode.TRUE, null, null));
+        long exactMillis = (System.nanoTime() - exactStart) / 1_000_000;
+        long approxStart = System.nanoTime();
+        Map<String, Long> approx = toHits(statService.getStats(start, end, uris, UniqueMode.APPROX, null, null));
+        long approxMillis = (System.nanoTime() - approxStart) / 1_000_000;
+        log.info("Уникальные просмотры: точный запрос {} мс {}, приблизительный {} мс {}",
+                exactMillis, exact, approxMillis, approx);
+
+        assertThat(approx).containsOnlyKeys(exact.keySet());
+        exact.forEach((uri, hits) ->
+                assertThat(Math.abs(approx.get(uri) - hits) / (double) hits)
+                        .as(uri)
+                        .isLessThanOrEqualTo(3 * STANDARD_ERROR));
+    }
+
+    private static Map<String, Long> toHits(List<StatDto> stats) {
+        return stats.stream().collect(Collectors.toMap(StatDto::getUri, StatDto::getHits));
+    }
+
+}
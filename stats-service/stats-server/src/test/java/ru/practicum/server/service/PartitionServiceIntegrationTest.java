@@ -0,0 +1,61 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.server.PostgresIntegrationTest;
+import ru.practicum.server.repository.HitPartitionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionServiceIntegrationTest extends PostgresIntegrationTest {
+
+    private static final List<String> LEGACY_PARTITIONS = List.of("hits_p202203", "hits_p202204", "hits_p202205");
+
+    @Autowired
+    private PartitionService partitionService;
+
+    @Autowired
+    private HitPartitionRepository hitPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        hitPartitionRepository.findPartitions().stream()
+                .filter(LEGACY_PARTITIONS::contains)
+                .forEach(hitPartitionRepository::dropPartition);
+    }
+
+    @Test
+    void maintainPartitionsShouldMoveLegacyRowsOutOfDefaultPartition() {
+        jdbcTemplate.update("INSERT INTO hits (app_id, uri_id, ip, timestamp) " +
+                "SELECT 1, i % 10 + 1, '10.0.0.' || i % 5, ? + i * interval '1 hour' " +
+                "FROM generate_series(0, 24 * 90 - 1) AS i", LocalDateTime.of(2022, 3, 1, 0, 0));
+        long total = count("hits");
+
+        partitionService.maintainPartitions();
+
+        assertThat(count("hits_default")).isZero();
+        assertThat(count("hits")).isEqualTo(total);
+        assertThat(hitPartitionRepository.findPartitions()).containsAll(LEGACY_PARTITIONS);
+        assertThat(count("hits_p202204")).isEqualTo(24 * 30);
+        assertThat(String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT COUNT(*) FROM hits " +
+                        "WHERE timestamp BETWEEN ? AND ?", String.class,
+                LocalDateTime.of(2022, 4, 10, 0, 0), LocalDateTime.of(2022, 4, 20, 0, 0))))
+                .contains("hits_p202204")
+                .doesNotContain("hits_default")
+                .doesNotContain("hits_p202203")
+                .doesNotContain("hits_p202205");
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+}
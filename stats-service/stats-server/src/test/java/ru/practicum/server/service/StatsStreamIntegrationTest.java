@@ -0,0 +1,85 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.dto.HitDto;
+import ru.practicum.server.PostgresIntegrationTest;
+import ru.practicum.server.model.UniqueMode;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "stats.stream.chunk-size=" + StatsStreamIntegrationTest.CHUNK_SIZE)
+class StatsStreamIntegrationTest extends PostgresIntegrationTest {
+
+    static final int CHUNK_SIZE = 100;
+    private static final int URIS = 2_050;
+    private static final LocalDateTime START = LocalDateTime.of(2021, 6, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2021, 6, 1, 23, 59, 59);
+
+    @Autowired
+    private StatService statService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        List<HitDto> hits = new ArrayList<>(URIS);
+        for (int i = 0; i < URIS; i++) {
+            hits.add(new HitDto("ewm-main-service", "/stream/" + i, "10.0.0." + i % 256,
+                    "2021-06-01 12:00:00"));
+        }
+        statService.saveStatsBatch(hits);
+        rollupService.compactPending();
+    }
+
+    @Test
+    void streamStatsShouldFlushEveryChunkFromHits() {
+        assertStreamedInChunks(UniqueMode.TRUE);
+    }
+
+    @Test
+    void streamStatsShouldFlushEveryChunkFromRollups() {
+        assertStreamedInChunks(UniqueMode.FALSE);
+    }
+
+    private void assertStreamedInChunks(UniqueMode unique) {
+        ChunkRecorder out = new ChunkRecorder();
+
+        statService.streamStats(START, END, null, unique, out);
+
+        assertThat(out.lines).isEqualTo(URIS);
+        assertThat(out.linesPerFlush).hasSizeGreaterThanOrEqualTo(out.lines / CHUNK_SIZE)
+                .allSatisfy(lines -> assertThat(lines).isLessThanOrEqualTo(CHUNK_SIZE));
+    }
+
+    private static class ChunkRecorder extends OutputStream {
+
+        private final List<Integer> linesPerFlush = new ArrayList<>();
+        private int lines;
+        private int pending;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                pending++;
+            }
+        }
+
+        @Override
+        public void flush() {
+            linesPerFlush.add(pending);
+            pending = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package ru.practicum.server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Slf4j
+class HyperLogLogTest {
+
+    @ParameterizedTest
+    @CsvSource({"0.05, 100", "0.05, 100000", "0.02, 1000", "0.02, 100000", "0.01, 1000000"})
+    void estimateShouldStayWithinConfiguredError(double standardError, int distinct) {
+        int precision = HyperLogLog.precisionForError(standardError);
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(ip(i));
+            sketch.add(ip(i));
+        }
+
+        long estimate = sketch.estimate();
+        double error = Math.abs(estimate - distinct) / (double) distinct;
+        byte[] bytes = sketch.toBytes();
+        log.info("HyperLogLog: ошибка {}, точность {}, уникальных {}, оценка {}, отклонение {}%, размер {} байт",
+                standardError, precision, distinct, estimate, String.format("%.2f", error * 100), bytes.length);
+
+        assertThat(error).isLessThanOrEqualTo(3 * standardError);
+        assertThat(bytes.length).isLessThanOrEqualTo(2 + (1 << precision));
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(estimate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100})
+    void sparseSketchShouldBeSmallerThanDense(int distinct) {
+        int precision = HyperLogLog.precisionForError(0.02);
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(ip(i));
+        }
+
+        assertThat(sketch.toBytes().length).isLessThan(1 << precision);
+        assertThat(sketch.estimate()).isCloseTo(distinct, within(Math.max(1L, distinct / 20L)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"12, 12", "14, 12", "12, 14"})
+    void mergeShouldEstimateUnion(int leftPrecision, int rightPrecision) {
+        HyperLogLog left = new HyperLogLog(leftPrecision);
+        HyperLogLog right = new HyperLogLog(rightPrecision);
+        for (int i = 0; i < 60_000; i++) {
+            left.add(ip(i));
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            right.add(ip(i));
+        }
+
+        left.merge(right);
+
+        double standardError = 1.04 / Math.sqrt(1 << Math.min(leftPrecision, rightPrecision));
+        assertThat(Math.abs(left.estimate() - 100_000) / 100_000.0).isLessThanOrEqualTo(3 * standardError);
+    }
+
+    private static String ip(int i) {
+        return "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+    }
+
+}